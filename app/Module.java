@@ -0,0 +1,17 @@
+import com.google.inject.AbstractModule;
+
+import actors.AiTurnExecutor;
+import utils.ConfigPreloader;
+
+/**
+ * Guice bindings, picked up by Play because the class is called Module and lives in the
+ * root package.
+ */
+public class Module extends AbstractModule {
+
+	@Override
+	protected void configure() {
+		bind(ConfigPreloader.class).asEagerSingleton(); // Read the game configuration at startup
+		bind(AiTurnExecutor.Startup.class).asEagerSingleton(); // Size the AI turn pool from application.conf
+	}
+}
@@ -0,0 +1,109 @@
+package actors;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import com.typesafe.config.Config;
+
+/**
+ * Runs AI turns away from the actors' dispatcher. An AI turn is a whole turn of rules code,
+ * so playing it inside GameActor would hold a dispatcher thread for as long as it takes and
+ * keep that connection (and, with enough games, every other one) from being served.
+ *
+ * The pool is shared by every game and bounded: a fixed number of threads (game.ai.threads,
+ * one per core by default), and a limited number of turns waiting for one
+ * (game.ai.queue-size). Its load is reported as the "ai-turns" PoolMetrics.
+ */
+public final class AiTurnExecutor {
+
+    public static final int DEFAULT_QUEUE_SIZE = 256;
+
+    private static volatile ThreadPoolExecutor executor;
+    private static volatile PoolMetrics metrics;
+
+    private AiTurnExecutor() {
+    }
+
+    /**
+     * Sizes the pool from application.conf, once, when the application starts. Created
+     * eagerly by Module.
+     */
+    @Singleton
+    public static final class Startup {
+
+        @Inject
+        public Startup(Config config) {
+            configure(config.getInt("game.ai.threads"), config.getInt("game.ai.queue-size"));
+        }
+    }
+
+    /**
+     * Sets the size of the pool, replacing the current one (turns already queued still run).
+     * Called at startup with the values from application.conf, see Startup.
+     *
+     * @param threads   0 for one thread per core
+     * @param queueSize the number of turns that may wait for a thread
+     */
+    public static synchronized void configure(int threads, int queueSize) {
+        int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(size, size, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<Runnable>(queueSize), new AiThreadFactory());
+        pool.allowCoreThreadTimeOut(true);
+
+        ThreadPoolExecutor previous = executor;
+        metrics = PoolMetrics.register("ai-turns", pool);
+        executor = pool;
+        if (previous != null) {
+            previous.shutdown();
+        }
+    }
+
+    /**
+     * Queues an AI turn.
+     *
+     * @throws RejectedExecutionException if the queue is full
+     */
+    public static void submit(Runnable turn) {
+        ThreadPoolExecutor current = executor;
+        if (current == null) {
+            synchronized (AiTurnExecutor.class) {
+                if (executor == null) {
+                    configure(0, DEFAULT_QUEUE_SIZE);
+                }
+                current = executor;
+            }
+        }
+        try {
+            current.execute(turn);
+        } catch (RejectedExecutionException e) {
+            metrics.rejected();
+            throw e;
+        }
+    }
+
+    /**
+     * @return the load of the pool, never null once the application has started, as the
+     * eager Startup binding in Module creates the pool at boot
+     */
+    public static PoolMetrics getMetrics() {
+        return metrics;
+    }
+
+    private static final class AiThreadFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "ai-turn-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
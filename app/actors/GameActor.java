@@ -1,15 +1,18 @@
 package actors;
 
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
 import akka.actor.AbstractActor;
 import akka.actor.ActorRef;
+import commands.GameView;
 import events.CardClicked;
 import events.EndTurnClicked;
 import events.EventProcessor;
@@ -20,6 +23,7 @@ import events.TileClicked;
 import events.UnitMoving;
 import events.UnitStopped;
 import play.libs.Json;
+import structures.AIController;
 import structures.GameState;
 import structures.basic.Board;
 import utils.ImageListForPreLoad;
@@ -37,11 +41,31 @@ import play.libs.Json;
  */
 public class GameActor extends AbstractActor {
 
-	private ObjectMapper mapper = new ObjectMapper(); // Jackson Java Object Serializer, is used to turn java objects to Strings
 	private ActorRef out; // The ActorRef can be used to send messages to the front-end UI
+	private OutboundChannel outbound; // Between out and the websocket, may be null
 	private Map<String,EventProcessor> eventProcessors; // Classes used to process each type of event
 	private GameState gameState; // A class that can be used to hold game state information
 
+	// While the AI plays its turn on the AiTurnExecutor, the game state is left to it: messages
+	// from the front-end wait in deferred until AiTurnFinished comes back, up to deferredLimit
+	private boolean aiTurnRunning;
+	private final Deque<JsonNode> deferred = new ArrayDeque<JsonNode>();
+	private final int deferredLimit;
+
+	public static final int DEFAULT_DEFERRED_LIMIT = 64;
+
+	// The same goes while the browser is behind on the UI messages already sent, see OutboundChannel
+	private boolean outboundCongested;
+
+	private static final class AiTurnFinished {
+	}
+
+	// Sent to itself to try again when the AiTurnExecutor had no room for the AI's turn
+	private static final class RetryAiTurn {
+	}
+
+	private static final Duration AI_TURN_RETRY_DELAY = Duration.ofMillis(100);
+
 
 
 
@@ -51,10 +75,24 @@ public class GameActor extends AbstractActor {
 	 * connection to the front-end is established.
 	 * @param out
 	 */
-	@SuppressWarnings("deprecation")
 	public GameActor(ActorRef out) {
+		this(out, null, DEFAULT_DEFERRED_LIMIT);
+	}
+
+	/**
+	 * Constructor for a GameActor whose messages reach the front-end through an OutboundChannel,
+	 * which tells it when to stop taking input.
+	 * @param out
+	 * @param outbound
+	 * @param deferredLimit the number of messages from the front-end kept while the game
+	 *                      cannot take them, any more are dropped
+	 */
+	@SuppressWarnings("deprecation")
+	public GameActor(ActorRef out, OutboundChannel outbound, int deferredLimit) {
 
 		this.out = out; // save this, so we can send commands to the front-end later
+		this.outbound = outbound;
+		this.deferredLimit = deferredLimit;
 
 		// create class instances to respond to the various events that we might recieve
 		eventProcessors = new HashMap<String,EventProcessor>();
@@ -64,25 +102,33 @@ public class GameActor extends AbstractActor {
 		eventProcessors.put("unitstopped", new UnitStopped());
 		eventProcessors.put("tileclicked", new TileClicked());
 		eventProcessors.put("cardclicked", new CardClicked());
-		eventProcessors.put("endturnclicked", new EndTurnClicked());
+		eventProcessors.put("endturnclicked", new EndTurnClicked(false)); // The AI's turn is started by processMessage
 		eventProcessors.put("otherclicked", new OtherClicked());
 		
 		// Initalize a new game state object
-		gameState = new GameState();
-		
-		// Get the list of image files to pre-load the UI with
-		Set<String> images = ImageListForPreLoad.getImageListForPreLoad();
+		gameState = new GameState(GameView.framed(out)); // One UI frame per processed message
 		
+		// Send the list of image files to pre-load the UI with, serialised once for all connections
 		try {
 			ObjectNode readyMessage = Json.newObject();
 			readyMessage.put("messagetype", "actorReady");
-			readyMessage.put("preloadImages", mapper.readTree(mapper.writeValueAsString(images)));
+			readyMessage.putRawValue("preloadImages", ImageListForPreLoad.getPreloadManifest());
 			out.tell(readyMessage, out);
 		} catch (Exception e) {
 			e.printStackTrace();
 		}
 	}
 
+	@Override
+	public void preStart() throws Exception {
+		if (outbound!=null) outbound.attach(getSelf());
+	}
+
+	@Override
+	public void postStop() throws Exception {
+		if (outbound!=null) outbound.close();
+	}
+
 	/**
 	 * This method simply farms out the processing of the json messages from the front-end to the
 	 * processMessage method
@@ -92,8 +138,21 @@ public class GameActor extends AbstractActor {
 		return receiveBuilder()
 				.match(JsonNode.class, message -> {
 					System.out.println(message);
-					processMessage(message.get("messagetype").asText(), message);
-				}).build();
+					String messageType = message.get("messagetype").asText();
+					if (!aiTurnRunning && !outboundCongested) {
+						processMessage(messageType, message);
+					} else if (!messageType.equals("heartbeat")) {
+						defer(message);
+					}
+				})
+				.match(AiTurnFinished.class, finished -> finishAiTurn())
+				.match(RetryAiTurn.class, retry -> startAiTurn())
+				.match(OutboundChannel.Congested.class, congested -> outboundCongested = true)
+				.match(OutboundChannel.Drained.class, drained -> {
+					outboundCongested = false;
+					processDeferred();
+				})
+				.build();
 	}
 
 	/**
@@ -113,6 +172,72 @@ public class GameActor extends AbstractActor {
 			System.err.println("GameActor: Recieved unknown event type "+messageType);
 		} else {
 			processor.processEvent(out, gameState, message); // process the event
+			gameState.endAction(); // deliver events queued for batched listeners
+			gameState.getView().flush(); // send the UI frame for this action
+
+			if (gameState.isGameInitialized() && !gameState.isHumanTurn()) {
+				startAiTurn();
+			}
+		}
+	}
+
+	/**
+	 * Plays the AI's turn on the AiTurnExecutor. The result (the UI frame) is sent once
+	 * AiTurnFinished comes back to this actor. If every AI thread is busy and the queue is
+	 * full, the turn is tried again a little later, never played on the actor's own thread;
+	 * the game keeps waiting for it meanwhile.
+	 * @throws Exception
+	 */
+	protected void startAiTurn() throws Exception {
+		aiTurnRunning = true;
+		ActorRef self = getSelf();
+		Runnable turn = () -> {
+			playAiTurn();
+			self.tell(new AiTurnFinished(), self);
+		};
+		try {
+			AiTurnExecutor.submit(turn);
+		} catch (RejectedExecutionException e) {
+			getContext().getSystem().scheduler().scheduleOnce(AI_TURN_RETRY_DELAY, self, new RetryAiTurn(),
+					getContext().dispatcher(), self);
+		}
+	}
+
+	/**
+	 * Plays the AI's whole turn, on the calling thread.
+	 */
+	protected void playAiTurn() {
+		try {
+			((AIController) gameState.getPlayer2()).playCard(null, out, gameState);
+			gameState.endAction();
+		} catch (Exception e) {
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Sends the UI frame of the AI's turn, then processes the messages that arrived meanwhile.
+	 * @throws Exception
+	 */
+	protected void finishAiTurn() throws Exception {
+		aiTurnRunning = false;
+		gameState.getView().flush();
+		processDeferred();
+	}
+
+	private void defer(JsonNode message) {
+		if (deferred.size() < deferredLimit) {
+			deferred.add(message);
+		} else {
+			OutboundMetrics.total().droppedInput();
+			reportError("Too many messages, dropped " + message.get("messagetype").asText());
+		}
+	}
+
+	private void processDeferred() throws Exception {
+		while (!aiTurnRunning && !outboundCongested && !deferred.isEmpty()) {
+			JsonNode message = deferred.poll();
+			processMessage(message.get("messagetype").asText(), message);
 		}
 	}
 	
@@ -0,0 +1,43 @@
+package actors;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadFactory;
+
+import com.typesafe.config.Config;
+
+import akka.dispatch.DispatcherPrerequisites;
+import akka.dispatch.ExecutorServiceConfigurator;
+import akka.dispatch.ExecutorServiceFactory;
+
+/**
+ * An Akka executor for dispatchers whose load should be visible: a fork-join pool like
+ * Akka's own fork-join-executor, registered as a PoolMetrics named after the dispatcher.
+ * Akka hands the pool its mailboxes unchanged, the metrics only read the pool's own counts.
+ * Used by game-dispatcher in application.conf:
+ * <pre>
+ *   executor = "actors.MeteredExecutorConfigurator"
+ *   parallelism = 0 # threads, 0 for one per core
+ * </pre>
+ */
+public class MeteredExecutorConfigurator extends ExecutorServiceConfigurator {
+
+    private final int parallelism;
+
+    public MeteredExecutorConfigurator(Config config, DispatcherPrerequisites prerequisites) {
+        super(config, prerequisites);
+        int configured = config.hasPath("parallelism") ? config.getInt("parallelism") : 0;
+        parallelism = configured > 0 ? configured : Runtime.getRuntime().availableProcessors();
+    }
+
+    @Override
+    public ExecutorServiceFactory createExecutorServiceFactory(String id, ThreadFactory threadFactory) {
+        return () -> {
+            ForkJoinPool.ForkJoinWorkerThreadFactory workers = threadFactory instanceof ForkJoinPool.ForkJoinWorkerThreadFactory
+                    ? (ForkJoinPool.ForkJoinWorkerThreadFactory) threadFactory
+                    : ForkJoinPool.defaultForkJoinWorkerThreadFactory;
+            ForkJoinPool pool = new ForkJoinPool(parallelism, workers, null, true);
+            PoolMetrics.register(id, pool);
+            return pool;
+        };
+    }
+}
@@ -0,0 +1,348 @@
+package actors;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import akka.actor.ActorRef;
+import akka.stream.javadsl.Flow;
+import play.libs.Json;
+
+/**
+ * The way the UI messages of one game get to its websocket. A browser can read them slower
+ * than the game writes them (the first draw of the board, clearing every highlight, ...),
+ * so rather than a fixed buffer that fails the connection once full, the messages the
+ * websocket has not taken yet wait in a backlog, where:
+ * <ul>
+ * <li>a frame is joined onto the frame before it, the browser plays them back to back anyway;</li>
+ * <li>a command that only sets something (a tile's mode, a unit's health, a card, ...) replaces
+ * an earlier one for the same thing that would be shown at the same moment;</li>
+ * <li>once more than limit commands are waiting, effect animations are left out.</li>
+ * </ul>
+ * Over the limit, the game is also told to stop taking input (Congested) until the backlog
+ * is down to half of it (Drained). Everything is counted in OutboundMetrics.
+ */
+public final class OutboundChannel {
+
+    /**
+     * Sent to the attached actor when its backlog goes over the limit.
+     */
+    public static final class Congested {
+    }
+
+    /**
+     * Sent to the attached actor when its backlog is down to half the limit again.
+     */
+    public static final class Drained {
+    }
+
+    private static final OutboundMetrics metrics = OutboundMetrics.total();
+
+    private final int limit; // Commands
+
+    // A lock rather than synchronized, so a virtual thread waiting in awaitDrained does not
+    // hold on to its carrier thread
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition drained = lock.newCondition();
+    private int backlog; // Commands waiting, from the stream's conflate stage to the websocket
+    private boolean congested;
+    private ActorRef session;
+
+    public OutboundChannel(int limit) {
+        this.limit = limit;
+        metrics.opened();
+    }
+
+    /**
+     * Puts the channel between a game and its websocket: flow is the game's side, the
+     * result is what the websocket should use.
+     */
+    public <M> Flow<JsonNode, JsonNode, M> wrap(Flow<JsonNode, JsonNode, M> flow) {
+        return flow.conflateWithSeed(this::startBacklog, this::addToBacklog)
+                .mapConcat(this::release)
+                .map(this::sent);
+    }
+
+    /**
+     * Has Congested and Drained sent to session from now on.
+     */
+    public void attach(ActorRef session) {
+        lock.lock();
+        try {
+            this.session = session;
+            if (congested) {
+                session.tell(new Congested(), ActorRef.noSender());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Blocks until the backlog is under the limit, for sessions that have a thread of their own.
+     */
+    public void awaitDrained() throws InterruptedException {
+        lock.lock();
+        try {
+            while (congested) {
+                drained.await();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the number of commands waiting for the websocket
+     */
+    public int getBacklog() {
+        lock.lock();
+        try {
+            return backlog;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return whether the game is being told to stop taking input
+     */
+    public boolean isCongested() {
+        lock.lock();
+        try {
+            return congested;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * To be called once the websocket is closed.
+     */
+    public void close() {
+        metrics.closed();
+    }
+
+    // The stages of wrap, public so the channel can also be driven one step at a time
+    // (e.g. in tests): each message goes through startBacklog or addToBacklog, each backlog
+    // through release once the websocket can take it, and each released message through sent
+
+    /**
+     * Starts a new backlog with the first message the websocket could not take yet.
+     */
+    public Backlog startBacklog(JsonNode message) {
+        return addToBacklog(new Backlog(), message);
+    }
+
+    /**
+     * Adds a message to the backlog, merged into or replacing what it can.
+     */
+    public Backlog addToBacklog(Backlog waiting, JsonNode message) {
+        changeBacklog(waiting.add(message, isFull()));
+        return waiting;
+    }
+
+    /**
+     * The messages of a backlog, in the order they are to be sent.
+     */
+    public List<JsonNode> release(Backlog waiting) {
+        return waiting.messages();
+    }
+
+    /**
+     * Takes a message the websocket was given off the backlog.
+     */
+    public JsonNode sent(JsonNode message) {
+        changeBacklog(-weight(message));
+        metrics.sent();
+        return message;
+    }
+
+    private boolean isFull() {
+        lock.lock();
+        try {
+            return backlog > limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void changeBacklog(int commands) {
+        lock.lock();
+        try {
+            backlog += commands;
+            metrics.backlog(backlog);
+            if (!congested && backlog > limit) {
+                congested = true;
+                metrics.congested();
+                if (session != null) {
+                    session.tell(new Congested(), ActorRef.noSender());
+                }
+            } else if (congested && backlog <= limit / 2) {
+                congested = false;
+                drained.signalAll();
+                if (session != null) {
+                    session.tell(new Drained(), ActorRef.noSender());
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Frames count for their commands, anything else for one
+    private static int weight(JsonNode message) {
+        return isFrame(message) ? message.get("commands").size() : 1;
+    }
+
+    private static boolean isFrame(JsonNode message) {
+        return message.path("messagetype").asText().equals("frame");
+    }
+
+    /**
+     * The thing a command sets, if a later command of the same key makes it pointless.
+     */
+    private static String keyOf(JsonNode command) {
+        String type = command.path("messagetype").asText();
+        switch (type) {
+        case "drawTile":
+            JsonNode tile = command.path("tile");
+            return type + ":" + tile.path("tilex").asInt() + "," + tile.path("tiley").asInt();
+        case "setUnitHealth":
+        case "setUnitAttack":
+            return type + ":" + command.path("unit").path("id").asInt();
+        case "drawCard":
+            return type + ":" + command.path("position").asInt();
+        case "setPlayer1Health":
+        case "setPlayer2Health":
+        case "setPlayer1Mana":
+        case "setPlayer2Mana":
+            return type;
+        default:
+            return null;
+        }
+    }
+
+    /**
+     * Commands that only show something for a moment and can be left out.
+     */
+    private static boolean isDroppable(JsonNode command) {
+        String type = command.path("messagetype").asText();
+        return type.equals("playEffectAnimation") || type.equals("drawProjectile");
+    }
+
+    /**
+     * The messages waiting for the websocket, in order. Only used by the stream, one
+     * message at a time.
+     */
+    public static final class Backlog {
+
+        private Backlog() {
+        }
+
+        // Frames are kept as a Frame until released, anything else as its message, each
+        // under a key of its own; keys has the one of the last message for each keyOf
+        private final Map<Object, Object> messages = new LinkedHashMap<Object, Object>();
+        private final Map<String, Object> keys = new HashMap<String, Object>(); // Since the last frame
+        private Frame last; // The last message, if it is a frame
+
+        /**
+         * @return the change in the number of commands waiting
+         */
+        int add(JsonNode message, boolean full) {
+            if (isFrame(message)) {
+                keys.clear(); // Commands before the frame show during it, they cannot be replaced
+                if (last != null) {
+                    metrics.mergedFrame();
+                    return last.append(message, full);
+                }
+                last = new Frame(message);
+                messages.put(new Object(), last);
+                return last.append(message, full);
+            }
+
+            last = null;
+            if (full && isDroppable(message)) {
+                metrics.dropped();
+                return 0;
+            }
+            String key = keyOf(message);
+            if (key == null) {
+                messages.put(new Object(), message);
+                return 1;
+            }
+            Object token = new Object();
+            Object previous = keys.put(key, token);
+            messages.put(token, message);
+            if (previous != null && messages.remove(previous) != null) {
+                metrics.coalesced();
+                return 0;
+            }
+            return 1;
+        }
+
+        List<JsonNode> messages() {
+            List<JsonNode> released = new ArrayList<JsonNode>(messages.size());
+            for (Object message : messages.values()) {
+                released.add(message instanceof Frame ? ((Frame) message).toJson() : (JsonNode) message);
+            }
+            return released;
+        }
+    }
+
+    /**
+     * One or more frames joined into one: each frame's commands start when the frame before
+     * it is over.
+     */
+    private static final class Frame {
+
+        private final ObjectNode message;
+        private final Map<Object, JsonNode> commands = new LinkedHashMap<Object, JsonNode>();
+        private int duration;
+
+        Frame(JsonNode first) {
+            message = (ObjectNode) first;
+        }
+
+        int append(JsonNode frame, boolean full) {
+            int added = 0;
+            for (JsonNode command : frame.get("commands")) {
+                if (full && isDroppable(command)) {
+                    metrics.dropped();
+                    continue;
+                }
+                int at = duration + command.path("at").asInt();
+                ((ObjectNode) command).put("at", at);
+                String key = keyOf(command);
+                if (key == null) {
+                    commands.put(new Object(), command);
+                    added++;
+                } else if (commands.remove(key + "@" + at) != null) {
+                    commands.put(key + "@" + at, command); // Both would be shown at the same moment
+                    metrics.coalesced();
+                } else {
+                    commands.put(key + "@" + at, command);
+                    added++;
+                }
+            }
+            duration += frame.path("duration").asInt();
+            return added;
+        }
+
+        JsonNode toJson() {
+            ArrayNode array = Json.newArray();
+            array.addAll(commands.values());
+            message.set("commands", array);
+            message.put("duration", duration);
+            return message;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package actors;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import play.libs.Json;
+
+/**
+ * What the OutboundChannels of all websockets together did with the UI messages of their
+ * games: how many reached the browser, how many were merged or dropped on the way, and how
+ * often a game had to stop taking input because its browser was behind (and how many of the
+ * browser's messages were dropped because too many were already waiting meanwhile).
+ */
+public final class OutboundMetrics {
+
+    private static final OutboundMetrics total = new OutboundMetrics();
+
+    private final AtomicInteger open = new AtomicInteger(); // Channels of open websockets
+    private final AtomicLong sent = new AtomicLong(); // Messages handed to the websocket
+    private final AtomicLong coalesced = new AtomicLong(); // Commands replaced by a later one for the same thing
+    private final AtomicLong mergedFrames = new AtomicLong(); // Frames joined onto the frame before them
+    private final AtomicLong dropped = new AtomicLong(); // Commands left out because the backlog was full
+    private final AtomicLong congested = new AtomicLong(); // Times a game was told to stop taking input
+    private final AtomicInteger peakBacklog = new AtomicInteger(); // Most commands ever waiting on one websocket
+    private final AtomicLong droppedInput = new AtomicLong(); // Browser messages left out while a game held back too many
+
+    private OutboundMetrics() {
+    }
+
+    public static OutboundMetrics total() {
+        return total;
+    }
+
+    void opened() {
+        open.incrementAndGet();
+    }
+
+    void closed() {
+        open.decrementAndGet();
+    }
+
+    void sent() {
+        sent.incrementAndGet();
+    }
+
+    void coalesced() {
+        coalesced.incrementAndGet();
+    }
+
+    void mergedFrame() {
+        mergedFrames.incrementAndGet();
+    }
+
+    void dropped() {
+        dropped.incrementAndGet();
+    }
+
+    void congested() {
+        congested.incrementAndGet();
+    }
+
+    void backlog(int commands) {
+        peakBacklog.accumulateAndGet(commands, Math::max);
+    }
+
+    void droppedInput() {
+        droppedInput.incrementAndGet();
+    }
+
+    public int getOpen() {
+        return open.get();
+    }
+
+    public long getSent() {
+        return sent.get();
+    }
+
+    public long getCoalesced() {
+        return coalesced.get();
+    }
+
+    public long getMergedFrames() {
+        return mergedFrames.get();
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    public long getCongested() {
+        return congested.get();
+    }
+
+    public int getPeakBacklog() {
+        return peakBacklog.get();
+    }
+
+    public long getDroppedInput() {
+        return droppedInput.get();
+    }
+
+    public ObjectNode toJson() {
+        ObjectNode node = Json.newObject();
+        node.put("open", getOpen());
+        node.put("sent", getSent());
+        node.put("coalesced", getCoalesced());
+        node.put("mergedFrames", getMergedFrames());
+        node.put("dropped", getDropped());
+        node.put("congested", getCongested());
+        node.put("peakBacklog", getPeakBacklog());
+        node.put("droppedInput", getDroppedInput());
+        return node;
+    }
+}
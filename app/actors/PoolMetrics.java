@@ -0,0 +1,107 @@
+package actors;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import play.libs.Json;
+
+/**
+ * Queue depth and utilisation of one thread pool, e.g. the game actors' dispatcher or the
+ * AI turn executor. Both are read from the pool itself when asked for, so running a task
+ * costs nothing extra; only the tasks the pool refused are counted here. Every pool registers
+ * itself by name, so they can all be listed (see MetricsController).
+ */
+public final class PoolMetrics {
+
+    private static final Map<String, PoolMetrics> pools = new ConcurrentSkipListMap<String, PoolMetrics>();
+
+    private final String name;
+    private final int threads;
+    private final IntSupplier queued; // Submitted, not started yet
+    private final IntSupplier active; // Running right now
+    private final LongAdder rejected = new LongAdder();
+
+    private PoolMetrics(String name, int threads, IntSupplier queued, IntSupplier active) {
+        this.name = name;
+        this.threads = threads;
+        this.queued = queued;
+        this.active = active;
+    }
+
+    /**
+     * Registers the metrics of a fork-join pool under its name, replacing any earlier pool of
+     * that name.
+     */
+    public static PoolMetrics register(String name, ForkJoinPool pool) {
+        return register(new PoolMetrics(name, pool.getParallelism(),
+                () -> (int) Math.min(Integer.MAX_VALUE, pool.getQueuedSubmissionCount() + pool.getQueuedTaskCount()),
+                pool::getActiveThreadCount));
+    }
+
+    /**
+     * Registers the metrics of a thread pool under its name, replacing any earlier pool of
+     * that name.
+     */
+    public static PoolMetrics register(String name, ThreadPoolExecutor pool) {
+        return register(new PoolMetrics(name, pool.getMaximumPoolSize(), () -> pool.getQueue().size(),
+                pool::getActiveCount));
+    }
+
+    private static PoolMetrics register(PoolMetrics metrics) {
+        pools.put(metrics.name, metrics);
+        return metrics;
+    }
+
+    /**
+     * Returns every registered pool, by name.
+     */
+    public static Map<String, PoolMetrics> all() {
+        return pools;
+    }
+
+    /**
+     * Counts a task the pool refused.
+     */
+    public void rejected() {
+        rejected.increment();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getQueued() {
+        return queued.getAsInt();
+    }
+
+    public int getActive() {
+        return active.getAsInt();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    /**
+     * The share of the pool's threads running a task right now, 0 to 1.
+     */
+    public double getUtilisation() {
+        return threads <= 0 ? 0 : Math.min(1.0, (double) getActive() / threads);
+    }
+
+    public ObjectNode toJson() {
+        ObjectNode node = Json.newObject();
+        node.put("threads", threads);
+        node.put("queued", getQueued());
+        node.put("active", getActive());
+        node.put("rejected", getRejected());
+        node.put("utilisation", getUtilisation());
+        return node;
+    }
+}
@@ -0,0 +1,100 @@
+package actors;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import akka.actor.ActorRef;
+
+/**
+ * The "virtual-thread" session runtime (see game.session.runtime in application.conf). The
+ * actor only puts the messages from the front-end into a bounded inbox; the game itself runs
+ * on a thread of its own that takes them out one at a time, plays the AI's turns inline and
+ * is free to block, e.g. while the browser is behind on the UI messages (see OutboundChannel).
+ * On JDK 21 and later that thread is a virtual thread, so thousands of mostly idle games
+ * share a few carrier threads; on older JDKs it is a platform thread.
+ *
+ * The rules are exactly those of GameActor, so both runtimes can be compared under the same
+ * load.
+ */
+public class VirtualThreadGameActor extends GameActor {
+
+    private final OutboundChannel outbound;
+    private final BlockingQueue<JsonNode> inbox;
+    private final Thread session;
+
+    public VirtualThreadGameActor(ActorRef out, OutboundChannel outbound, int inboxSize) {
+        super(out, outbound, inboxSize);
+        this.outbound = outbound;
+        inbox = new ArrayBlockingQueue<JsonNode>(inboxSize);
+        session = startThread("game-session", this::run);
+    }
+
+    @Override
+    public Receive createReceive() {
+        return receiveBuilder()
+                .match(JsonNode.class, message -> {
+                    if (message.get("messagetype").asText().equals("heartbeat")) {
+                        return; // Heartbeat does nothing, and must not fill the inbox while the game waits
+                    }
+                    if (!inbox.offer(message)) {
+                        OutboundMetrics.total().droppedInput();
+                        reportError("Too many messages, dropped " + message.get("messagetype").asText());
+                    }
+                }).build();
+    }
+
+    /**
+     * Nothing to attach, the session's thread waits on the channel itself.
+     */
+    @Override
+    public void preStart() throws Exception {
+    }
+
+    @Override
+    public void postStop() throws Exception {
+        session.interrupt();
+        super.postStop();
+    }
+
+    private void run() {
+        try {
+            while (true) {
+                outbound.awaitDrained();
+                JsonNode message = inbox.take();
+                try {
+                    processMessage(message.get("messagetype").asText(), message);
+                } catch (Exception e) {
+                    e.printStackTrace();
+                }
+            }
+        } catch (InterruptedException e) {
+            // The websocket was closed
+        }
+    }
+
+    /**
+     * The AI's turn runs on the session's own thread, there is nobody else to keep waiting.
+     */
+    @Override
+    protected void startAiTurn() throws Exception {
+        playAiTurn();
+        finishAiTurn();
+    }
+
+    // Thread.ofVirtual() is only there from JDK 21, so it is looked up rather than called
+    private static Thread startThread(String name, Runnable task) {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            builder = builderType.getMethod("name", String.class).invoke(builder, name);
+            return (Thread) builderType.getMethod("start", Runnable.class).invoke(builder, task);
+        } catch (ReflectiveOperationException e) {
+            Thread thread = new Thread(task, name);
+            thread.setDaemon(true);
+            thread.start();
+            return thread;
+        }
+    }
+}
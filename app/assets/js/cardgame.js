@@ -242,30 +242,37 @@ function cardClicked(eventData) {
 }
 
 
+// Remembers how to draw the units made from one file, drawUnit only carries the sprite id
+function defineUnitSprite(message) {
+	unitSprites.set(message.sprite, message);
+}
+
 function drawUnit(message) {
 	
 	//console.log(message.unit);
 
+	unitSpriteIds.set(message.unit.id, message.unit.sprite);
+	var definition = unitSprites.get(message.unit.sprite); // see defineUnitSprite
 	var unitContainer = new PIXI.Container();
 	
 	// Draw unit in idle stance
-	var unit = g.sprite(message.unit.animations.allFrames);
-	unit.playAnimation(message.unit.animations.idle.frameStartEndIndices);
-	unit.loop = message.unit.animations.idle.loop;
-	unit.fps = message.unit.animations.idle.fps;
+	var unit = g.sprite(definition.animations.allFrames);
+	unit.playAnimation(definition.animations.idle.frameStartEndIndices);
+	unit.loop = definition.animations.idle.loop;
+	unit.fps = definition.animations.idle.fps;
 	
-	var spriteX = message.unit.position.xpos - message.unit.correction.spriteTopLeftX;
-	var spriteY = message.unit.position.ypos - message.unit.correction.spriteTopLeftY-20;
+	var spriteX = message.unit.position.xpos - definition.correction.spriteTopLeftX;
+	var spriteY = message.unit.position.ypos - definition.correction.spriteTopLeftY-20;
 	
-	unit.setPosition(message.unit.correction.offsetX, message.unit.correction.offsetY);
-    unit.width = message.unit.correction.imgWidth*(1+(message.unit.correction.spriteTopLeftX/message.unit.correction.imgWidth))*message.unit.correction.scale;
-    unit.height = message.unit.correction.imgHeight*(1+(message.unit.correction.spriteTopLeftY/message.unit.correction.imgHeight))*message.unit.correction.scale;
+	unit.setPosition(definition.correction.offsetX, definition.correction.offsetY);
+    unit.width = definition.correction.imgWidth*(1+(definition.correction.spriteTopLeftX/definition.correction.imgWidth))*definition.correction.scale;
+    unit.height = definition.correction.imgHeight*(1+(definition.correction.spriteTopLeftY/definition.correction.imgHeight))*definition.correction.scale;
 	unit.gameID = message.unit.id;
 	
 	// if reflect, flip the unit sprite
-	if (message.unit.correction.reflected) {
-		unit.scale.x = -1*message.unit.correction.scale;
-		unit.setPosition((message.unit.correction.imgWidth*message.unit.correction.scale)+message.unit.correction.offsetX, message.unit.correction.offsetY);
+	if (definition.correction.reflected) {
+		unit.scale.x = -1*definition.correction.scale;
+		unit.setPosition((definition.correction.imgWidth*definition.correction.scale)+definition.correction.offsetX, definition.correction.offsetY);
 	}
 	
 	//unit.interactive = true;
@@ -274,26 +281,26 @@ function drawUnit(message) {
 
 	// Draw attack value
 	var attackcircle = g.sprite("assets/game/extra/AttackCircle.png");
-    attackcircle.setPosition(message.unit.correction.spriteTopLeftX+5, message.unit.correction.spriteTopLeftY+message.tile.height-25);
+    attackcircle.setPosition(definition.correction.spriteTopLeftX+5, definition.correction.spriteTopLeftY+message.tile.height-25);
     attackcircle.width = 40;
     attackcircle.height = 40;
 	unitContainer.addChild(attackcircle);
 	
 	var attackText = new PIXI.Text('0', { font: '20px Roboto', fill: 'white', align: 'center' });
-	attackText.position.x = message.unit.correction.spriteTopLeftX+20;
-	attackText.position.y = message.unit.correction.spriteTopLeftY+message.tile.height-15;
+	attackText.position.x = definition.correction.spriteTopLeftX+20;
+	attackText.position.y = definition.correction.spriteTopLeftY+message.tile.height-15;
 	unitContainer.addChild(attackText);
 	
 	// Draw health value
 	var healthcircle = g.sprite("assets/game/extra/HealthCircle.png");
-    healthcircle.setPosition(message.unit.correction.spriteTopLeftX+message.tile.height-45, message.unit.correction.spriteTopLeftY+message.tile.height-25);
+    healthcircle.setPosition(definition.correction.spriteTopLeftX+message.tile.height-45, definition.correction.spriteTopLeftY+message.tile.height-25);
     healthcircle.width = 40;
     healthcircle.height = 40;
 	unitContainer.addChild(healthcircle);
 	
 	var healthText = new PIXI.Text('0', { font: '20px Roboto', fill: 'white', align: 'center' });
-	healthText.position.x = message.unit.correction.spriteTopLeftX+message.tile.height-30;
-	healthText.position.y = message.unit.correction.spriteTopLeftY+message.tile.height-15;
+	healthText.position.x = definition.correction.spriteTopLeftX+message.tile.height-30;
+	healthText.position.y = definition.correction.spriteTopLeftY+message.tile.height-15;
 	unitContainer.addChild(healthText);
 
 	unitContainer.position.x = spriteX;
@@ -315,24 +322,25 @@ function drawUnit(message) {
 function getFrameSet(unit) {
 	var frameSet = [];
 	var anim = unit.animation;
+	var animations = unitSprites.get(unitSpriteIds.get(unit.id)).animations;
 	
 	if (anim === "idle") {
-		frameSet = unit.animations.idle;
+		frameSet = animations.idle;
 	}
 	if (anim === "death") {
-		frameSet = unit.animations.death;
+		frameSet = animations.death;
 	}
 	if (anim === "attack") {
-		frameSet = unit.animations.attack;
+		frameSet = animations.attack;
 	}
 	if (anim === "move") {
-		frameSet = unit.animations.move;
+		frameSet = animations.move;
 	}
 	if (anim === "channel") {
-		frameSet = unit.animations.channel;
+		frameSet = animations.channel;
 	}
 	if (anim === "hit") {
-		frameSet = unit.animations.hit;
+		frameSet = animations.hit;
 	}
 	
 	console.log(frameSet);
@@ -361,6 +369,7 @@ function executeMoveStep(message) {
 	
 	var targetUnit = sprites.get(message.unit.id);
 	var targetContainer = spriteContainers.get(message.unit.id);
+	var definition = unitSprites.get(unitSpriteIds.get(message.unit.id));
 	
 	if (message.unit.animation != "move") {
 		targetUnit.stopAnimation();
@@ -371,17 +380,17 @@ function executeMoveStep(message) {
   		}));
 		
 		message.unit.animation = "move";
-		targetUnit.fps = message.unit.animations.move.fps;
-		targetUnit.loop = message.unit.animations.move.loop;
-		targetUnit.playAnimation(message.unit.animations.move.frameStartEndIndices);
+		targetUnit.fps = definition.animations.move.fps;
+		targetUnit.loop = definition.animations.move.loop;
+		targetUnit.playAnimation(definition.animations.move.frameStartEndIndices);
 		//sprite.interactive = false;
 	}
 	
 	
 	//console.log(moveMessage)
 	
-	var spriteX = message.tile.xpos - message.unit.correction.spriteTopLeftX;
-	var spriteY = message.tile.ypos - message.unit.correction.spriteTopLeftY-20;
+	var spriteX = message.tile.xpos - definition.correction.spriteTopLeftX;
+	var spriteY = message.tile.ypos - definition.correction.spriteTopLeftY-20;
 	
 	var dx = Math.abs(targetContainer.position.x - spriteX);
     var dy = Math.abs(targetContainer.position.y - spriteY);
@@ -456,9 +465,9 @@ function executeMoveStep(message) {
   	  }));
 
 	  message.unit.animation = "idle";
-	  targetUnit.fps = message.unit.animations.idle.fps;
-      targetUnit.loop = message.unit.animations.idle.loop;
-	  targetUnit.playAnimation(message.unit.animations.idle.frameStartEndIndices);
+	  targetUnit.fps = definition.animations.idle.fps;
+      targetUnit.loop = definition.animations.idle.loop;
+	  targetUnit.playAnimation(definition.animations.idle.frameStartEndIndices);
 
       return true;
     }
@@ -905,6 +914,7 @@ function deleteUnit(message) {
 	sprites.delete(message.unit.id);
 	attackLabels.delete(message.unit.id);
 	healthLabels.delete(message.unit.id);
+	unitSpriteIds.delete(message.unit.id); // The sprite stays defined for other units
 }
 
 
@@ -930,6 +940,25 @@ function playEffectAnimation(message) {
 }
 
 
+// Plays back the commands of one game action. Each command carries the time (in ms from
+// the start of the frame) at which to show it. A frame starts once the previous one has
+// finished, so the commands stay in the order the server produced them.
+function playFrame(message) {
+	var now = performance.now();
+	var start = Math.max(now, frameEnd);
+	frameEnd = start + message.duration;
+	
+	for (let command of message.commands) {
+		var delay = start + command.at - now;
+		if (delay > 0) {
+			setTimeout(handleMessage, delay, command);
+		} else {
+			handleMessage(command);
+		}
+	}
+}
+
+
 //4. The `play` function, which is your game or application logic that runs in a loop
 
 function play(){
@@ -1,16 +1,27 @@
 package commands;
 
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.NullNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
 import akka.actor.ActorRef;
 import play.libs.Json;
 import structures.basic.Card;
 import structures.basic.EffectAnimation;
+import structures.basic.ImageCorrection;
 import structures.basic.Player;
+import structures.basic.Position;
 import structures.basic.Tile;
 import structures.basic.Unit;
 import structures.basic.UnitAnimation;
+import structures.basic.UnitAnimationSet;
 import structures.basic.UnitAnimationType;
 
 
@@ -25,10 +36,23 @@ public class BasicCommands {
 
 	private static ObjectMapper mapper = new ObjectMapper(); // Jackson Java Object Serializer, is used to turn java objects to Strings
 	
+	// The JSON of objects that never change once loaded: the board tiles (shared by every game),
+	// unit animation sets and corrections (shared by the units made from one file) and effects. Keyed by identity,
+	// as none of them override equals, and weakly, so a tile or unit that is dropped is forgotten.
+	private static final Map<Object, JsonNode> fragments = Collections.synchronizedMap(new WeakHashMap<Object, JsonNode>());
+	private static final Map<Tile, JsonNode> tileGeometry = Collections.synchronizedMap(new WeakHashMap<Tile, JsonNode>());
+	
+	// The sprite id of each animation set, see spriteId
+	private static final Map<UnitAnimationSet, Integer> spriteIds = Collections.synchronizedMap(new WeakHashMap<UnitAnimationSet, Integer>());
+	private static final AtomicInteger nextSpriteId = new AtomicInteger();
+	
 	// An alternative class with a 'tell' implementation can be given if writing unit tests
 	// and need to have a null ActorRef. This should be null during normal operation.
 	public static DummyTell altTell = null;
 	
+	// Set while a presenter collects the messages of a frame, see capture
+	private static final ThreadLocal<DummyTell> captured = new ThreadLocal<DummyTell>();
+	
 	
 	/**
 	 * You can consider the contents of the user’s browser window a canvas that can be drawn upon. drawTile will draw 
@@ -44,10 +68,36 @@ public class BasicCommands {
 		try {
 			ObjectNode returnMessage = Json.newObject();
 			returnMessage.put("messagetype", "drawTile");
-			returnMessage.put("tile", mapper.readTree(mapper.writeValueAsString(tile)));
+			returnMessage.put("tile", fragment(tile));
 			returnMessage.put("mode", mode);
-			if (altTell!=null) altTell.tell(returnMessage);
-			else out.tell(returnMessage, out);
+			send(out, returnMessage);
+		} catch (Exception e) {
+			e.printStackTrace();
+		}
+	}
+	
+	/**
+	 * Sends the browser what it needs to draw a unit: its animation set and image correction,
+	 * under the sprite id of the animation set (see spriteId). Every unit made from the same
+	 * file shares them, so drawUnit only has to name the sprite, and the presenters send each
+	 * sprite once per connection. drawUnit(out, unit, tile) calls this before drawing, so there
+	 * is normally no need to call it directly.
+	 * @param out
+	 * @param unit
+	 */
+	public static void defineUnitSprite(ActorRef out, Unit unit) {
+		defineUnitSprite(out, spriteId(unit.getAnimations()), unit.getAnimations(), unit.getCorrection());
+	}
+	
+	@SuppressWarnings({"deprecation"})
+	static void defineUnitSprite(ActorRef out, int spriteId, UnitAnimationSet animations, ImageCorrection correction) {
+		try {
+			ObjectNode returnMessage = Json.newObject();
+			returnMessage.put("messagetype", "defineUnitSprite");
+			returnMessage.put("sprite", spriteId);
+			returnMessage.put("animations", fragment(animations));
+			returnMessage.put("correction", fragment(correction));
+			send(out, returnMessage);
 		} catch (Exception e) {
 			e.printStackTrace();
 		}
@@ -61,15 +111,26 @@ public class BasicCommands {
 	 * @param unit
 	 * @param tile
 	 */
-	@SuppressWarnings({"deprecation"})
 	public static void drawUnit(ActorRef out, Unit unit, Tile tile) {
+		defineUnitSprite(out, unit);
+		drawUnit(out, unit.getId(), spriteId(unit.getAnimations()), unit.getPosition(), tile);
+	}
+	
+	/**
+	 * drawUnit from the values a UiEvent kept, the sprite must have been defined already.
+	 */
+	@SuppressWarnings({"deprecation"})
+	static void drawUnit(ActorRef out, int unitId, int spriteId, Position position, Tile tile) {
 		try {
+			ObjectNode unitMessage = unitRef(unitId);
+			unitMessage.put("sprite", spriteId);
+			unitMessage.put("position", mapper.valueToTree(position));
+			
 			ObjectNode returnMessage = Json.newObject();
 			returnMessage.put("messagetype", "drawUnit");
-			returnMessage.put("tile", mapper.readTree(mapper.writeValueAsString(tile)));
-			returnMessage.put("unit", mapper.readTree(mapper.writeValueAsString(unit)));
-			if (altTell!=null) altTell.tell(returnMessage);
-			else out.tell(returnMessage, out);
+			returnMessage.put("tile", tileRef(tile));
+			returnMessage.put("unit", unitMessage);
+			send(out, returnMessage);
 		} catch (Exception e) {
 			e.printStackTrace();
 		}
@@ -82,15 +143,18 @@ public class BasicCommands {
 	 * @param unit
 	 * @param attack
 	 */
-	@SuppressWarnings({"deprecation"})
 	public static void setUnitAttack(ActorRef out, Unit unit, int attack) {
+		setUnitAttack(out, unit.getId(), attack);
+	}
+	
+	@SuppressWarnings({"deprecation"})
+	static void setUnitAttack(ActorRef out, int unitId, int attack) {
 		try {
 			ObjectNode returnMessage = Json.newObject();
 			returnMessage.put("messagetype", "setUnitAttack");
-			returnMessage.put("unit", mapper.readTree(mapper.writeValueAsString(unit)));
+			returnMessage.put("unit", unitRef(unitId));
 			returnMessage.put("attack", attack);
-			if (altTell!=null) altTell.tell(returnMessage);
-			else out.tell(returnMessage, out);
+			send(out, returnMessage);
 		} catch (Exception e) {
 			e.printStackTrace();
 		}
@@ -103,15 +167,18 @@ public class BasicCommands {
 	 * @param unit
 	 * @param health
 	 */
-	@SuppressWarnings({"deprecation"})
 	public static void setUnitHealth(ActorRef out, Unit unit, int health) {
+		setUnitHealth(out, unit.getId(), health);
+	}
+	
+	@SuppressWarnings({"deprecation"})
+	static void setUnitHealth(ActorRef out, int unitId, int health) {
 		try {
 			ObjectNode returnMessage = Json.newObject();
 			returnMessage.put("messagetype", "setUnitHealth");
-			returnMessage.put("unit", mapper.readTree(mapper.writeValueAsString(unit)));
+			returnMessage.put("unit", unitRef(unitId));
 			returnMessage.put("health", health);
-			if (altTell!=null) altTell.tell(returnMessage);
-			else out.tell(returnMessage, out);
+			send(out, returnMessage);
 		} catch (Exception e) {
 			e.printStackTrace();
 		}
@@ -129,10 +196,9 @@ public class BasicCommands {
 		try {
 			ObjectNode returnMessage = Json.newObject();
 			returnMessage.put("messagetype", "moveUnitToTile");
-			returnMessage.put("unit", mapper.readTree(mapper.writeValueAsString(unit)));
-			returnMessage.put("tile", mapper.readTree(mapper.writeValueAsString(tile)));
-			if (altTell!=null) altTell.tell(returnMessage);
-			else out.tell(returnMessage, out);
+			returnMessage.put("unit", unitRef(unit.getId()).put("animation", String.valueOf(unit.getAnimation())));
+			returnMessage.put("tile", tileRef(tile));
+			send(out, returnMessage);
 		} catch (Exception e) {
 			e.printStackTrace();
 		}
@@ -147,16 +213,19 @@ public class BasicCommands {
 	 * @param unit
 	 * @param tile
 	 */
-	@SuppressWarnings({"deprecation"})
 	public static void moveUnitToTile(ActorRef out, Unit unit, Tile tile, boolean yfirst) {
+		moveUnitToTile(out, unit.getId(), unit.getAnimation(), tile, yfirst);
+	}
+	
+	@SuppressWarnings({"deprecation"})
+	static void moveUnitToTile(ActorRef out, int unitId, UnitAnimationType animation, Tile tile, boolean yfirst) {
 		try {
 			ObjectNode returnMessage = Json.newObject();
 			returnMessage.put("messagetype", "moveUnitToTile");
 			returnMessage.put("yfirst", yfirst);
-			returnMessage.put("unit", mapper.readTree(mapper.writeValueAsString(unit)));
-			returnMessage.put("tile", mapper.readTree(mapper.writeValueAsString(tile)));
-			if (altTell!=null) altTell.tell(returnMessage);
-			else out.tell(returnMessage, out);
+			returnMessage.put("unit", unitRef(unitId).put("animation", String.valueOf(animation)));
+			returnMessage.put("tile", tileRef(tile));
+			send(out, returnMessage);
 		} catch (Exception e) {
 			e.printStackTrace();
 		}
@@ -178,13 +247,7 @@ public class BasicCommands {
 		try {
 			
 			unit.setAnimation(animationToPlay);
-			
-			ObjectNode returnMessage = Json.newObject();
-			returnMessage.put("messagetype", "playUnitAnimation");
-			returnMessage.put("unit", mapper.readTree(mapper.writeValueAsString(unit)));
-			returnMessage.put("animation", animationToPlay.toString());
-			if (altTell!=null) altTell.tell(returnMessage);
-			else out.tell(returnMessage, out);
+			playUnitAnimation(out, unit.getId(), animationToPlay);
 			
 			// estimate the time needed for the animation to play
 			UnitAnimation animation = null;
@@ -206,19 +269,38 @@ public class BasicCommands {
 	}
 	
 	
+	/**
+	 * playUnitAnimation from the values a UiEvent kept, only sends the message.
+	 */
+	@SuppressWarnings({"deprecation"})
+	static void playUnitAnimation(ActorRef out, int unitId, UnitAnimationType animationToPlay) {
+		try {
+			ObjectNode returnMessage = Json.newObject();
+			returnMessage.put("messagetype", "playUnitAnimation");
+			returnMessage.put("unit", unitRef(unitId).put("animation", animationToPlay.toString()));
+			returnMessage.put("animation", animationToPlay.toString());
+			send(out, returnMessage);
+		} catch (Exception e) {
+			e.printStackTrace();
+		}
+	}
+	
 	/**
 	 * This will delete a unit instance from the board. It takes as input the unit object of the unit.
 	 * @param out
 	 * @param unit
 	 */
-	@SuppressWarnings({"deprecation"})
 	public static void deleteUnit(ActorRef out, Unit unit) {
+		deleteUnit(out, unit.getId());
+	}
+	
+	@SuppressWarnings({"deprecation"})
+	static void deleteUnit(ActorRef out, int unitId) {
 		try {
 			ObjectNode returnMessage = Json.newObject();
 			returnMessage.put("messagetype", "deleteUnit");
-			returnMessage.put("unit", mapper.readTree(mapper.writeValueAsString(unit)));
-			if (altTell!=null) altTell.tell(returnMessage);
-			else out.tell(returnMessage, out);
+			returnMessage.put("unit", unitRef(unitId));
+			send(out, returnMessage);
 		} catch (Exception e) {
 			e.printStackTrace();
 		}
@@ -231,17 +313,8 @@ public class BasicCommands {
 	 * @param out
 	 * @param player
 	 */
-	@SuppressWarnings({"deprecation"})
 	public static void setPlayer1Health(ActorRef out, Player player) {
-		try {
-			ObjectNode returnMessage = Json.newObject();
-			returnMessage.put("messagetype", "setPlayer1Health");
-			returnMessage.put("player", mapper.readTree(mapper.writeValueAsString(player)));
-			if (altTell!=null) altTell.tell(returnMessage);
-			else out.tell(returnMessage, out);
-		} catch (Exception e) {
-			e.printStackTrace();
-		}
+		setPlayerStat(out, "setPlayer1Health", player.getHealth(), player.getMana());
 	}
 	
 	/**
@@ -251,17 +324,8 @@ public class BasicCommands {
 	 * @param out
 	 * @param player
 	 */
-	@SuppressWarnings({"deprecation"})
 	public static void setPlayer2Health(ActorRef out, Player player) {
-		try {
-			ObjectNode returnMessage = Json.newObject();
-			returnMessage.put("messagetype", "setPlayer2Health");
-			returnMessage.put("player", mapper.readTree(mapper.writeValueAsString(player)));
-			if (altTell!=null) altTell.tell(returnMessage);
-			else out.tell(returnMessage, out);
-		} catch (Exception e) {
-			e.printStackTrace();
-		}
+		setPlayerStat(out, "setPlayer2Health", player.getHealth(), player.getMana());
 	}
 	
 	/**
@@ -271,17 +335,8 @@ public class BasicCommands {
 	 * @param out
 	 * @param player
 	 */
-	@SuppressWarnings({"deprecation"})
 	public static void setPlayer1Mana(ActorRef out, Player player) {
-		try {
-			ObjectNode returnMessage = Json.newObject();
-			returnMessage.put("messagetype", "setPlayer1Mana");
-			returnMessage.put("player", mapper.readTree(mapper.writeValueAsString(player)));
-			if (altTell!=null) altTell.tell(returnMessage);
-			else out.tell(returnMessage, out);
-		} catch (Exception e) {
-			e.printStackTrace();
-		}
+		setPlayerStat(out, "setPlayer1Mana", player.getHealth(), player.getMana());
 	}
 	
 	/**
@@ -291,14 +346,24 @@ public class BasicCommands {
 	 * @param out
 	 * @param player
 	 */
-	@SuppressWarnings({"deprecation"})
 	public static void setPlayer2Mana(ActorRef out, Player player) {
+		setPlayerStat(out, "setPlayer2Mana", player.getHealth(), player.getMana());
+	}
+	
+	/**
+	 * Sends one of the four player messages above, from the values a UiEvent kept.
+	 * @param out
+	 * @param messageType
+	 * @param health
+	 * @param mana
+	 */
+	@SuppressWarnings({"deprecation"})
+	static void setPlayerStat(ActorRef out, String messageType, int health, int mana) {
 		try {
 			ObjectNode returnMessage = Json.newObject();
-			returnMessage.put("messagetype", "setPlayer2Mana");
-			returnMessage.put("player", mapper.readTree(mapper.writeValueAsString(player)));
-			if (altTell!=null) altTell.tell(returnMessage);
-			else out.tell(returnMessage, out);
+			returnMessage.put("messagetype", messageType);
+			returnMessage.put("player", playerRef(health, mana));
+			send(out, returnMessage);
 		} catch (Exception e) {
 			e.printStackTrace();
 		}
@@ -318,11 +383,10 @@ public class BasicCommands {
 		try {
 			ObjectNode returnMessage = Json.newObject();
 			returnMessage.put("messagetype", "drawCard");
-			returnMessage.put("card", mapper.readTree(mapper.writeValueAsString(card)));
+			returnMessage.put("card", mapper.valueToTree(card));
 			returnMessage.put("position", position);
 			returnMessage.put("mode", mode);
-			if (altTell!=null) altTell.tell(returnMessage);
-			else out.tell(returnMessage, out);
+			send(out, returnMessage);
 		} catch (Exception e) {
 			e.printStackTrace();
 		}
@@ -338,8 +402,7 @@ public class BasicCommands {
 			ObjectNode returnMessage = Json.newObject();
 			returnMessage.put("messagetype", "deleteCard");
 			returnMessage.put("position", position);
-			if (altTell!=null) altTell.tell(returnMessage);
-			else out.tell(returnMessage, out);
+			send(out, returnMessage);
 		} catch (Exception e) {
 			e.printStackTrace();
 		}
@@ -359,10 +422,9 @@ public class BasicCommands {
 		try {
 			ObjectNode returnMessage = Json.newObject();
 			returnMessage.put("messagetype", "playEffectAnimation");
-			returnMessage.put("effect", mapper.readTree(mapper.writeValueAsString(effect)));
-			returnMessage.put("tile", mapper.readTree(mapper.writeValueAsString(tile)));
-			if (altTell!=null) altTell.tell(returnMessage);
-			else out.tell(returnMessage, out);
+			returnMessage.put("effect", fragment(effect));
+			returnMessage.put("tile", tileRef(tile));
+			send(out, returnMessage);
 			
 			return ((1000*effect.getAnimationTextures().size())/effect.getFps())+50;
 		} catch (Exception e) {
@@ -385,8 +447,7 @@ public class BasicCommands {
 			returnMessage.put("messagetype", "addPlayer1Notification");
 			returnMessage.put("text", text);
 			returnMessage.put("seconds", displayTimeSeconds);
-			if (altTell!=null) altTell.tell(returnMessage);
-			else out.tell(returnMessage, out);
+			send(out, returnMessage);
 		} catch (Exception e) {
 			e.printStackTrace();
 		}
@@ -403,15 +464,143 @@ public class BasicCommands {
 		try {
 			ObjectNode returnMessage = Json.newObject();
 			returnMessage.put("messagetype", "drawProjectile");
-			returnMessage.put("effect", mapper.readTree(mapper.writeValueAsString(effect)));
-			returnMessage.put("tile", mapper.readTree(mapper.writeValueAsString(startTile)));
-			returnMessage.put("targetTile", mapper.readTree(mapper.writeValueAsString(targetTile)));
-			returnMessage.put("mode", mapper.readTree(mapper.writeValueAsString(mode)));
-			if (altTell!=null) altTell.tell(returnMessage);
-			else out.tell(returnMessage, out);
+			returnMessage.put("effect", fragment(effect));
+			returnMessage.put("tile", tileRef(startTile));
+			returnMessage.put("targetTile", tileRef(targetTile));
+			returnMessage.put("mode", mode);
+			send(out, returnMessage);
+		} catch (Exception e) {
+			e.printStackTrace();
+		}
+	}
+	
+	/**
+	 * Sends several commands as a single message, which the browser plays back by itself. Each
+	 * command is the message one of the methods above would send, with an extra "at" field:
+	 * the number of milliseconds after the start of the frame at which to show it. The browser
+	 * starts the next frame once duration milliseconds have passed.
+	 * @param out
+	 * @param commands
+	 * @param duration
+	 */
+	@SuppressWarnings({"deprecation"})
+	public static void playFrame(ActorRef out, ArrayNode commands, int duration) {
+		try {
+			ObjectNode returnMessage = Json.newObject();
+			returnMessage.put("messagetype", "frame");
+			returnMessage.put("commands", commands);
+			returnMessage.put("duration", duration);
+			send(out, returnMessage);
 		} catch (Exception e) {
 			e.printStackTrace();
 		}
 	}
 	
+	/**
+	 * Runs some commands with their messages handed to target instead of being sent. This
+	 * only affects the calling thread. Used to collect the messages of a frame, see
+	 * UiFramePresenter.
+	 * @param target
+	 * @param commands
+	 */
+	static void capture(DummyTell target, Runnable commands) {
+		DummyTell previous = captured.get();
+		captured.set(target);
+		try {
+			commands.run();
+		} finally {
+			if (previous==null) captured.remove();
+			else captured.set(previous);
+		}
+	}
+	
+	private static void send(ActorRef out, ObjectNode message) {
+		DummyTell target = captured.get();
+		if (target!=null) target.tell(message);
+		else if (altTell!=null) altTell.tell(message);
+		else out.tell(message, out);
+	}
+	
+	/**
+	 * Returns the JSON of an object that is never modified, converting it only the first time
+	 * it is sent. The node is shared by every message that includes the object.
+	 * @param value
+	 * @return
+	 */
+	private static JsonNode fragment(Object value) {
+		if (value==null) return NullNode.getInstance();
+		JsonNode node = fragments.get(value);
+		if (node==null) {
+			node = mapper.valueToTree(value);
+			fragments.put(value, node);
+		}
+		return node;
+	}
+	
+	/**
+	 * Returns the id under which an animation set is sent to the browser, the same for every
+	 * unit made from one file (see UnitTemplate) and for as long as the set is in use.
+	 * @param animations
+	 * @return
+	 */
+	static int spriteId(UnitAnimationSet animations) {
+		synchronized (spriteIds) {
+			Integer id = spriteIds.get(animations);
+			if (id==null) {
+				id = nextSpriteId.getAndIncrement();
+				spriteIds.put(animations, id);
+			}
+			return id;
+		}
+	}
+	
+	/**
+	 * The unit part of the unit commands: just the id, the browser looks the sprite up from the
+	 * one drawUnit named.
+	 * @param unitId
+	 * @return
+	 */
+	private static ObjectNode unitRef(int unitId) {
+		ObjectNode node = Json.newObject();
+		node.put("id", unitId);
+		return node;
+	}
+	
+	/**
+	 * The player part of the player commands: the two values the browser shows, rather than
+	 * the whole player with its hand and deck.
+	 * @param health
+	 * @param mana
+	 * @return
+	 */
+	private static ObjectNode playerRef(int health, int mana) {
+		ObjectNode node = Json.newObject();
+		node.put("health", health);
+		node.put("mana", mana);
+		return node;
+	}
+	
+	/**
+	 * The tile part of the unit and effect commands: where the tile is, without its textures
+	 * (only drawTile needs those). Converted once per tile.
+	 * @param tile
+	 * @return
+	 */
+	private static JsonNode tileRef(Tile tile) {
+		if (tile==null) return NullNode.getInstance();
+		JsonNode node = tileGeometry.get(tile);
+		if (node==null) {
+			ObjectNode geometry = Json.newObject();
+			geometry.put("xpos", tile.getXpos());
+			geometry.put("ypos", tile.getYpos());
+			geometry.put("width", tile.getWidth());
+			geometry.put("height", tile.getHeight());
+			geometry.put("tilex", tile.getTilex());
+			geometry.put("tiley", tile.getTiley());
+			tileGeometry.put(tile, geometry);
+			node = geometry;
+		}
+		return node;
+	}
+	
 }
@@ -0,0 +1,82 @@
+package commands;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import akka.actor.ActorRef;
+
+/**
+ * Shows UiEvents in the browser by turning each one into the matching BasicCommands
+ * message, as soon as it is accepted. PAUSE events are skipped: to keep the time they ask
+ * for, use a UiFramePresenter, which passes the other events on to one of these.
+ * 
+ * A presenter belongs to one connection, and defines each unit sprite there only once.
+ *
+ */
+public class BasicCommandsPresenter implements UiEventSink {
+
+	private final ActorRef out;
+	private final Set<Integer> definedSprites = new HashSet<Integer>(); // See BasicCommands.spriteId
+
+	public BasicCommandsPresenter(ActorRef out) {
+		this.out = out;
+	}
+
+	@Override
+	public void accept(UiEvent event) {
+		switch (event.getType()) {
+		case DRAW_TILE:
+			BasicCommands.drawTile(out, event.getTile(), event.getValue());
+			break;
+		case DRAW_UNIT:
+			int sprite = BasicCommands.spriteId(event.getAnimations());
+			if (definedSprites.add(sprite)) {
+				BasicCommands.defineUnitSprite(out, sprite, event.getAnimations(), event.getCorrection());
+			}
+			BasicCommands.drawUnit(out, event.getUnitId(), sprite, event.getPosition(), event.getTile());
+			break;
+		case SET_UNIT_ATTACK:
+			BasicCommands.setUnitAttack(out, event.getUnitId(), event.getValue());
+			break;
+		case SET_UNIT_HEALTH:
+			BasicCommands.setUnitHealth(out, event.getUnitId(), event.getValue());
+			break;
+		case MOVE_UNIT:
+			BasicCommands.moveUnitToTile(out, event.getUnitId(), event.getAnimation(), event.getTile(), event.isYFirst());
+			break;
+		case PLAY_UNIT_ANIMATION:
+			BasicCommands.playUnitAnimation(out, event.getUnitId(), event.getAnimation());
+			break;
+		case DELETE_UNIT:
+			BasicCommands.deleteUnit(out, event.getUnitId());
+			break;
+		case SET_PLAYER1_HEALTH:
+			BasicCommands.setPlayerStat(out, "setPlayer1Health", event.getHealth(), event.getMana());
+			break;
+		case SET_PLAYER2_HEALTH:
+			BasicCommands.setPlayerStat(out, "setPlayer2Health", event.getHealth(), event.getMana());
+			break;
+		case SET_PLAYER1_MANA:
+			BasicCommands.setPlayerStat(out, "setPlayer1Mana", event.getHealth(), event.getMana());
+			break;
+		case SET_PLAYER2_MANA:
+			BasicCommands.setPlayerStat(out, "setPlayer2Mana", event.getHealth(), event.getMana());
+			break;
+		case DRAW_CARD:
+			BasicCommands.drawCard(out, event.getCard(), event.getValue(), event.getCardMode());
+			break;
+		case DELETE_CARD:
+			BasicCommands.deleteCard(out, event.getValue());
+			break;
+		case PLAY_EFFECT:
+			BasicCommands.playEffectAnimation(out, event.getEffect(), event.getTile());
+			break;
+		case NOTIFY:
+			BasicCommands.addPlayer1Notification(out, event.getText(), event.getValue());
+			break;
+		case PAUSE:
+			break; // Skipped, see above
+		}
+	}
+
+}
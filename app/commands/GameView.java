@@ -0,0 +1,141 @@
+package commands;
+
+import akka.actor.ActorRef;
+import structures.basic.Card;
+import structures.basic.EffectAnimation;
+import structures.basic.Player;
+import structures.basic.Tile;
+import structures.basic.Unit;
+import structures.basic.UnitAnimationType;
+
+/**
+ * The game rules' only way to change what the user sees. The methods mirror BasicCommands
+ * without the ActorRef: each one turns into a UiEvent for the sink this view was created
+ * with, so the rules themselves have no websocket or timing side effects and can run
+ * headless (e.g. for simulation or tests). The events copy the unit and player values they
+ * show, see UiEvent.
+ *
+ * pause() replaces the Thread.sleep calls the rules used to pace animations: the sink decides
+ * how to keep the delay (a time offset in a UI frame, or nothing at all) without blocking.
+ *
+ */
+public class GameView {
+
+	private UiEventSink sink;
+
+	public GameView(UiEventSink sink) {
+		this.sink = sink;
+	}
+
+	/**
+	 * A view that sends every event straight to the front-end behind the given ActorRef.
+	 * @param out
+	 * @return
+	 */
+	public static GameView forActor(ActorRef out) {
+		return new GameView(new BasicCommandsPresenter(out));
+	}
+
+	/**
+	 * A view that sends the events of each game action to the front-end behind the given
+	 * ActorRef as one frame, see UiFramePresenter. flush() must be called after each action.
+	 * @param out
+	 * @return
+	 */
+	public static GameView framed(ActorRef out) {
+		return new GameView(new UiFramePresenter(out));
+	}
+
+	/**
+	 * A view that drops every event, including pauses.
+	 * @return
+	 */
+	public static GameView headless() {
+		return new GameView(UiEventSink.NONE);
+	}
+
+	public UiEventSink getSink() {
+		return sink;
+	}
+
+	public void setSink(UiEventSink sink) {
+		this.sink = sink;
+	}
+
+	public void drawTile(Tile tile, int mode) {
+		sink.accept(UiEvent.drawTile(tile, mode));
+	}
+
+	public void drawUnit(Unit unit, Tile tile) {
+		sink.accept(UiEvent.drawUnit(unit, tile));
+	}
+
+	public void setUnitAttack(Unit unit, int attack) {
+		sink.accept(UiEvent.setUnitAttack(unit, attack));
+	}
+
+	public void setUnitHealth(Unit unit, int health) {
+		sink.accept(UiEvent.setUnitHealth(unit, health));
+	}
+
+	public void moveUnitToTile(Unit unit, Tile tile, boolean yFirst) {
+		sink.accept(UiEvent.moveUnitToTile(unit, tile, yFirst));
+	}
+
+	public void playUnitAnimation(Unit unit, UnitAnimationType animation) {
+		unit.setAnimation(animation); // Unit state, changed now whatever the sink does with the event
+		sink.accept(UiEvent.playUnitAnimation(unit, animation));
+	}
+
+	public void deleteUnit(Unit unit) {
+		sink.accept(UiEvent.deleteUnit(unit));
+	}
+
+	public void setPlayer1Health(Player player) {
+		sink.accept(UiEvent.playerStat(UiEvent.Type.SET_PLAYER1_HEALTH, player));
+	}
+
+	public void setPlayer2Health(Player player) {
+		sink.accept(UiEvent.playerStat(UiEvent.Type.SET_PLAYER2_HEALTH, player));
+	}
+
+	public void setPlayer1Mana(Player player) {
+		sink.accept(UiEvent.playerStat(UiEvent.Type.SET_PLAYER1_MANA, player));
+	}
+
+	public void setPlayer2Mana(Player player) {
+		sink.accept(UiEvent.playerStat(UiEvent.Type.SET_PLAYER2_MANA, player));
+	}
+
+	public void drawCard(Card card, int position, int mode) {
+		sink.accept(UiEvent.drawCard(card, position, mode));
+	}
+
+	public void deleteCard(int position) {
+		sink.accept(UiEvent.deleteCard(position));
+	}
+
+	public void playEffectAnimation(EffectAnimation effect, Tile tile) {
+		sink.accept(UiEvent.playEffectAnimation(effect, tile));
+	}
+
+	public void addPlayer1Notification(String text, int displayTimeSeconds) {
+		sink.accept(UiEvent.notification(text, displayTimeSeconds));
+	}
+
+	/**
+	 * Marks the end of a game action: events held back by the sink are shown.
+	 */
+	public void flush() {
+		sink.flush();
+	}
+
+	/**
+	 * Leaves time for the previous animation before the next event is shown.
+	 * @param millis
+	 */
+	public void pause(int millis) {
+		sink.accept(UiEvent.pause(millis));
+	}
+
+}
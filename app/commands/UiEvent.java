@@ -0,0 +1,240 @@
+package commands;
+
+import structures.basic.Card;
+import structures.basic.EffectAnimation;
+import structures.basic.ImageCorrection;
+import structures.basic.Player;
+import structures.basic.Position;
+import structures.basic.Tile;
+import structures.basic.Unit;
+import structures.basic.UnitAnimationSet;
+import structures.basic.UnitAnimationType;
+
+/**
+ * A single change the front-end should show, produced by the game rules. Each type
+ * corresponds to one BasicCommands message, plus PAUSE which asks the presenter to
+ * leave time for the previous animation before showing the next event.
+ *
+ * Events are created through GameView and only carry the fields their type needs. They hold
+ * the values of the unit or player as they were when the event was created (id, position,
+ * animation, health, mana), never the live object, so an event shown or replayed later still
+ * shows that moment. Tiles, cards, effects and unit animation sets are not changed by the
+ * rules once loaded, so those are kept as they are.
+ *
+ */
+public final class UiEvent {
+
+	public enum Type {
+		DRAW_TILE,
+		DRAW_UNIT,
+		SET_UNIT_ATTACK,
+		SET_UNIT_HEALTH,
+		MOVE_UNIT,
+		PLAY_UNIT_ANIMATION,
+		DELETE_UNIT,
+		SET_PLAYER1_HEALTH,
+		SET_PLAYER2_HEALTH,
+		SET_PLAYER1_MANA,
+		SET_PLAYER2_MANA,
+		DRAW_CARD,
+		DELETE_CARD,
+		PLAY_EFFECT,
+		NOTIFY,
+		PAUSE
+	}
+
+	private final Type type;
+	private int unitId = -1;
+	private Position position; // A copy, for DRAW_UNIT
+	private UnitAnimationType animation;
+	private UnitAnimationSet animations; // For DRAW_UNIT
+	private ImageCorrection correction; // For DRAW_UNIT
+	private Tile tile;
+	private int health; // Player stats
+	private int mana;
+	private Card card;
+	private EffectAnimation effect;
+	private int value; // mode, attack, health, hand position, seconds or milliseconds depending on type
+	private int cardMode;
+	private boolean yFirst;
+	private String text;
+
+	private UiEvent(Type type) {
+		this.type = type;
+	}
+
+	private static UiEvent ofUnit(Type type, Unit unit) {
+		UiEvent event = new UiEvent(type);
+		event.unitId = unit.getId();
+		return event;
+	}
+
+	static UiEvent drawTile(Tile tile, int mode) {
+		UiEvent event = new UiEvent(Type.DRAW_TILE);
+		event.tile = tile;
+		event.value = mode;
+		return event;
+	}
+
+	static UiEvent drawUnit(Unit unit, Tile tile) {
+		UiEvent event = ofUnit(Type.DRAW_UNIT, unit);
+		Position position = unit.getPosition();
+		if (position != null) {
+			event.position = new Position(position.getXpos(), position.getYpos(), position.getTilex(), position.getTiley());
+		}
+		event.animations = unit.getAnimations();
+		event.correction = unit.getCorrection();
+		event.tile = tile;
+		return event;
+	}
+
+	static UiEvent setUnitAttack(Unit unit, int attack) {
+		UiEvent event = ofUnit(Type.SET_UNIT_ATTACK, unit);
+		event.value = attack;
+		return event;
+	}
+
+	static UiEvent setUnitHealth(Unit unit, int health) {
+		UiEvent event = ofUnit(Type.SET_UNIT_HEALTH, unit);
+		event.value = health;
+		return event;
+	}
+
+	static UiEvent moveUnitToTile(Unit unit, Tile tile, boolean yFirst) {
+		UiEvent event = ofUnit(Type.MOVE_UNIT, unit);
+		event.animation = unit.getAnimation();
+		event.tile = tile;
+		event.yFirst = yFirst;
+		return event;
+	}
+
+	static UiEvent playUnitAnimation(Unit unit, UnitAnimationType animation) {
+		UiEvent event = ofUnit(Type.PLAY_UNIT_ANIMATION, unit);
+		event.animation = animation;
+		return event;
+	}
+
+	static UiEvent deleteUnit(Unit unit) {
+		return ofUnit(Type.DELETE_UNIT, unit);
+	}
+
+	static UiEvent playerStat(Type type, Player player) {
+		UiEvent event = new UiEvent(type);
+		event.health = player.getHealth();
+		event.mana = player.getMana();
+		return event;
+	}
+
+	static UiEvent drawCard(Card card, int position, int mode) {
+		UiEvent event = new UiEvent(Type.DRAW_CARD);
+		event.card = card;
+		event.value = position;
+		event.cardMode = mode;
+		return event;
+	}
+
+	static UiEvent deleteCard(int position) {
+		UiEvent event = new UiEvent(Type.DELETE_CARD);
+		event.value = position;
+		return event;
+	}
+
+	static UiEvent playEffectAnimation(EffectAnimation effect, Tile tile) {
+		UiEvent event = new UiEvent(Type.PLAY_EFFECT);
+		event.effect = effect;
+		event.tile = tile;
+		return event;
+	}
+
+	static UiEvent notification(String text, int displayTimeSeconds) {
+		UiEvent event = new UiEvent(Type.NOTIFY);
+		event.text = text;
+		event.value = displayTimeSeconds;
+		return event;
+	}
+
+	static UiEvent pause(int millis) {
+		UiEvent event = new UiEvent(Type.PAUSE);
+		event.value = millis;
+		return event;
+	}
+
+	public Type getType() {
+		return type;
+	}
+
+	/**
+	 * The id of the unit of a unit event, -1 for other events.
+	 */
+	public int getUnitId() {
+		return unitId;
+	}
+
+	/**
+	 * Where the unit of a DRAW_UNIT event stood.
+	 */
+	public Position getPosition() {
+		return position;
+	}
+
+	/**
+	 * The animation of a PLAY_UNIT_ANIMATION event, or the one the unit was playing for MOVE_UNIT.
+	 */
+	public UnitAnimationType getAnimation() {
+		return animation;
+	}
+
+	public UnitAnimationSet getAnimations() {
+		return animations;
+	}
+
+	public ImageCorrection getCorrection() {
+		return correction;
+	}
+
+	public Tile getTile() {
+		return tile;
+	}
+
+	/**
+	 * The player's health, for the player events.
+	 */
+	public int getHealth() {
+		return health;
+	}
+
+	/**
+	 * The player's mana, for the player events.
+	 */
+	public int getMana() {
+		return mana;
+	}
+
+	public Card getCard() {
+		return card;
+	}
+
+	public EffectAnimation getEffect() {
+		return effect;
+	}
+
+	public int getValue() {
+		return value;
+	}
+
+	public boolean isYFirst() {
+		return yFirst;
+	}
+
+	public String getText() {
+		return text;
+	}
+
+	/**
+	 * The card display mode of a DRAW_CARD event (the hand position is in value).
+	 */
+	public int getCardMode() {
+		return cardMode;
+	}
+
+}
@@ -0,0 +1,45 @@
+package commands;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A UiEventSink that records events instead of showing them. Useful for tests and for
+ * running the rules ahead of time, then replaying the result through another sink.
+ *
+ */
+public class UiEventLog implements UiEventSink {
+
+	private List<UiEvent> events = new ArrayList<UiEvent>();
+
+	@Override
+	public void accept(UiEvent event) {
+		events.add(event);
+	}
+
+	/**
+	 * Returns the recorded events and starts a new, empty log.
+	 * @return
+	 */
+	public List<UiEvent> drain() {
+		List<UiEvent> drained = events;
+		events = new ArrayList<UiEvent>();
+		return drained;
+	}
+
+	/**
+	 * Sends the given events to another sink, in order.
+	 * @param events
+	 * @param sink
+	 */
+	public static void replay(List<UiEvent> events, UiEventSink sink) {
+		for (UiEvent event : events) {
+			sink.accept(event);
+		}
+	}
+
+	public int size() {
+		return events.size();
+	}
+
+}
@@ -0,0 +1,29 @@
+package commands;
+
+/**
+ * Receives the UiEvents produced by the game rules. Implementations decide what to do
+ * with them, e.g. send them to the browser (BasicCommandsPresenter), record them
+ * (UiEventLog) or drop them for headless play.
+ *
+ */
+public interface UiEventSink {
+
+	/**
+	 * Called once per event, in the order the rules produced them.
+	 * @param event
+	 */
+	void accept(UiEvent event);
+
+	/**
+	 * Called when the rules have finished a game action (e.g. a move or a whole AI turn), for
+	 * sinks that hold events back until then, like UiFramePresenter.
+	 */
+	default void flush() {
+	}
+
+	/**
+	 * A sink that ignores every event, used when the rules run without a front-end.
+	 */
+	UiEventSink NONE = event -> { };
+
+}
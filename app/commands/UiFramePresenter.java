@@ -0,0 +1,56 @@
+package commands;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+
+import akka.actor.ActorRef;
+import play.libs.Json;
+
+/**
+ * Shows UiEvents in the browser one game action at a time. The BasicCommands messages of
+ * an action are collected into a single frame, where each message is stamped with the time
+ * (in milliseconds from the start of the frame) at which the browser should show it. PAUSE
+ * events only move that time on, so the server never waits for an animation: the browser
+ * does the pacing when it plays the frame back.
+ *
+ * flush() sends the frame, and is called once the action is complete (see GameActor).
+ *
+ */
+public class UiFramePresenter implements UiEventSink {
+
+	private final ActorRef out;
+	private final BasicCommandsPresenter commands;
+
+	private ArrayNode frame = Json.newArray();
+	private int offset; // Milliseconds from the start of the frame
+
+	public UiFramePresenter(ActorRef out) {
+		this.out = out;
+		this.commands = new BasicCommandsPresenter(out);
+	}
+
+	@Override
+	public void accept(UiEvent event) {
+		if (event.getType() == UiEvent.Type.PAUSE) {
+			offset += event.getValue();
+			return;
+		}
+		BasicCommands.capture(message -> frame.add(message.put("at", offset)), () -> commands.accept(event));
+	}
+
+	@Override
+	public void flush() {
+		if (frame.size() > 0) {
+			BasicCommands.playFrame(out, frame, offset);
+		}
+		frame = Json.newArray();
+		offset = 0;
+	}
+
+	/**
+	 * @return the number of commands waiting for the next flush
+	 */
+	public int size() {
+		return frame.size();
+	}
+
+}
@@ -0,0 +1,39 @@
+package controllers;
+
+import javax.inject.Inject;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.typesafe.config.Config;
+
+import play.libs.Json;
+import play.mvc.Controller;
+import play.mvc.Result;
+import structures.CardDefinitions;
+
+/**
+ * Operations on the running server that games never do themselves. They affect every game,
+ * so they answer Not Found unless game.admin.enabled is set in application.conf.
+ */
+public class AdminController extends Controller {
+
+	private final boolean enabled; // game.admin.enabled
+
+	@Inject
+	public AdminController(Config config) {
+		enabled = config.getBoolean("game.admin.enabled");
+	}
+
+	/**
+	 * Picks up edited card files: if any changed, the card definitions and templates are read
+	 * again and replace the current ones once complete. Games being played are not held up,
+	 * they keep the cards and units they already have.
+	 */
+	public Result reloadCards() {
+		if (!enabled) {
+			return notFound();
+		}
+		ObjectNode result = Json.newObject();
+		result.put("reloaded", CardDefinitions.reloadIfChanged());
+		return ok(result);
+	}
+}
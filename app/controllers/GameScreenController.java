@@ -2,7 +2,12 @@ package controllers;
 
 import javax.inject.Inject;
 
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigException;
+
 import actors.GameActor;
+import actors.OutboundChannel;
+import actors.VirtualThreadGameActor;
 import akka.actor.ActorRef;
 import akka.actor.ActorSystem;
 import akka.actor.Props;
@@ -27,14 +32,25 @@ public class GameScreenController extends Controller {
 	private final ActorSystem actorSystem;
 	private final Materializer materializer;
 	Form<User> userForm = null;
-	private final int bufferSize = 256;
+	private final int bufferSize = 256; // Only holds messages until the OutboundChannel takes them
+	private final String gameDispatcher = "game-dispatcher"; // Keeps games off the dispatcher serving HTTP, see application.conf
+	private final String sessionRuntime; // game.session.runtime, "actor" or "virtual-thread"
+	private final int sessionInboxSize;
+	private final int outboundLimit; // game.outbound.limit, commands waiting before a game is held back
 	
 	
 	@Inject
-	public GameScreenController(FormFactory formFactory, ActorSystem actorSystem, Materializer materializer) {
+	public GameScreenController(FormFactory formFactory, ActorSystem actorSystem, Materializer materializer, Config config) {
 		this.actorSystem = actorSystem;
 		this.materializer = materializer;
 		userForm = formFactory.form(User.class);
+		sessionRuntime = config.getString("game.session.runtime");
+		if (!sessionRuntime.equals("actor") && !sessionRuntime.equals("virtual-thread")) {
+			throw new ConfigException.BadValue("game.session.runtime",
+					"expected \"actor\" or \"virtual-thread\", not \"" + sessionRuntime + "\"");
+		}
+		sessionInboxSize = config.getInt("game.session.inbox-size");
+		outboundLimit = config.getInt("game.outbound.limit");
 
 	}
 
@@ -44,8 +60,10 @@ public class GameScreenController extends Controller {
 	 */
 	public WebSocket socket() {
 
-		return WebSocket.Json.accept(
-				request -> ActorFlow.actorRef(this::createGameActor, bufferSize, OverflowStrategy.fail(),actorSystem, materializer));
+		return WebSocket.Json.accept(request -> {
+			OutboundChannel outbound = new OutboundChannel(outboundLimit);
+			return outbound.wrap(ActorFlow.actorRef(out -> createGameActor(out, outbound), bufferSize, OverflowStrategy.fail(),actorSystem, materializer));
+		});
 
 	}
 
@@ -58,7 +76,10 @@ public class GameScreenController extends Controller {
 		return ok(views.html.gamescreen.render(request, null));
 	}
 	
-	public Props createGameActor(ActorRef out) {
-		return Props.create(GameActor.class, out); // calls the constructor for Game Actor
+	public Props createGameActor(ActorRef out, OutboundChannel outbound) {
+		if (sessionRuntime.equals("virtual-thread")) {
+			return Props.create(VirtualThreadGameActor.class, out, outbound, sessionInboxSize).withDispatcher(gameDispatcher);
+		}
+		return Props.create(GameActor.class, out, outbound, sessionInboxSize).withDispatcher(gameDispatcher); // calls the constructor for Game Actor
 	}
 }
\ No newline at end of file
@@ -0,0 +1,39 @@
+package controllers;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import actors.OutboundMetrics;
+import actors.PoolMetrics;
+import play.libs.Json;
+import play.mvc.Controller;
+import play.mvc.Result;
+import utils.BasicObjectBuilders;
+
+/**
+ * Reports how loaded the server's thread pools are (the game actors' dispatcher and the AI
+ * turn executor), as JSON keyed by pool name, what happened to the UI messages on their way
+ * to the browsers, and how often games found the configuration they load already in memory.
+ */
+public class MetricsController extends Controller {
+
+	public Result pools() {
+		ObjectNode pools = Json.newObject();
+		for (PoolMetrics metrics : PoolMetrics.all().values()) {
+			pools.set(metrics.getName(), metrics.toJson());
+		}
+		return ok(pools);
+	}
+
+	public Result outbound() {
+		return ok(OutboundMetrics.total().toJson());
+	}
+
+	public Result config() {
+		ObjectNode config = Json.newObject();
+		config.put("templateHits", BasicObjectBuilders.getTemplateHits());
+		config.put("templateMisses", BasicObjectBuilders.getTemplateMisses());
+		config.put("fileHits", BasicObjectBuilders.getFileHits());
+		config.put("fileMisses", BasicObjectBuilders.getFileMisses());
+		return ok(config);
+	}
+}
@@ -6,11 +6,10 @@ import java.util.List;
 import com.fasterxml.jackson.databind.JsonNode;
 
 import akka.actor.ActorRef;
-import commands.BasicCommands;
+import structures.CardDefinitions;
 import structures.GameState;
 import structures.HumanPlayer;
 import structures.SpellEffect;
-import structures.SpellEffectMap;
 import structures.basic.Card;
 import structures.basic.Player;
 import structures.basic.Position;
@@ -44,14 +43,14 @@ public class CardClicked implements EventProcessor {
         if (previouslySelectedCard != null) {
             gameState.clearAllHighlights(out);
             int previousPosition = hand.indexOf(previouslySelectedCard) + 1; // Get the position of the previously selected card
-            BasicCommands.drawCard(out, previouslySelectedCard, previousPosition, 0); // Clear highlight (mode = 0)
+            gameState.getView().drawCard(previouslySelectedCard, previousPosition, 0); // Clear highlight (mode = 0)
             gameState.setSelectedCard(null);
         }
 
         // Highlight the newly clicked card
         else if (handPosition >= 1 && handPosition <= hand.size()) {
             Card clickedCard = hand.get(handPosition - 1); // Adjust for 0-based index
-            BasicCommands.drawCard(out, clickedCard, handPosition, 1); // Highlight with mode = 1
+            gameState.getView().drawCard(clickedCard, handPosition, 1); // Highlight with mode = 1
 
             // Store the selected card in the GameState
             gameState.setSelectedCard(clickedCard);
@@ -63,13 +62,13 @@ public class CardClicked implements EventProcessor {
                 highlightValidSummonTiles(out, gameState);
             } else if (!clickedCard.isCreature() && gameState.getCurrentPlayer().getMana() >= clickedCard.getManacost()) {
                 // Handle spell card
-                SpellEffect spellEffect = SpellEffectMap.getSpellEffectForCard(clickedCard.getCardname());
+                SpellEffect spellEffect = CardDefinitions.getSpellEffect(clickedCard);
                 if (spellEffect != null) {
                     spellEffect.highlightValidTargets(out, gameState, null);
                     highlightValidTargetTiles(out,gameState);
                 }
             } else {
-                BasicCommands.addPlayer1Notification(out, "not enough mana", 2);
+                gameState.getView().addPlayer1Notification("not enough mana", 2);
                 gameState.clearAllHighlights(out);
 
             }
@@ -78,16 +77,16 @@ public class CardClicked implements EventProcessor {
 
     private void highlightValidTargetTiles(ActorRef out, GameState gameState) {
         for (Tile tile: gameState.getRedHighlightedTiles()) {
-            BasicCommands.drawTile(out,tile,2);
+            gameState.getView().drawTile(tile,2);
         }
         for (Tile tile: gameState.getHighlightedTiles()) {
-            BasicCommands.drawTile(out,tile,1);
+            gameState.getView().drawTile(tile,1);
         }
     }
 
     private void highlightValidSummonTiles(ActorRef out, GameState gameState) {
         for (Tile tile: gameState.getHighlightedTiles()) {
-            BasicCommands.drawTile(out,tile,1);
+            gameState.getView().drawTile(tile,1);
         }
 
     }
@@ -3,7 +3,6 @@ package events;
 import com.fasterxml.jackson.databind.JsonNode;
 
 import akka.actor.ActorRef;
-import commands.BasicCommands;
 import structures.AIController;
 import structures.GameState;
 import structures.HumanPlayer;
@@ -22,6 +21,20 @@ import structures.basic.Player;
  */
 public class EndTurnClicked implements EventProcessor{
 
+	private final boolean playAiTurn;
+
+	public EndTurnClicked() {
+		this(true);
+	}
+
+	/**
+	 * @param playAiTurn whether the AI plays its turn straight away when the human ends theirs.
+	 * GameActor passes false, and plays the AI's turn on the AiTurnExecutor itself.
+	 */
+	public EndTurnClicked(boolean playAiTurn) {
+		this.playAiTurn = playAiTurn;
+	}
+
 	@Override
 	public void processEvent(ActorRef out, GameState gameState, JsonNode message) {
 		if (gameState.isGameInitialized()) {
@@ -34,15 +47,11 @@ public class EndTurnClicked implements EventProcessor{
 			// Set unused mana to 0 for the player who ended turn
 			endTurnPlayer.setMana(0);
 			if (endTurnPlayer == gameState.getPlayer1()) {
-				BasicCommands.setPlayer1Mana(out, endTurnPlayer);
+				gameState.getView().setPlayer1Mana(endTurnPlayer);
 			} else if (endTurnPlayer == gameState.getPlayer2()) {
-				BasicCommands.setPlayer2Mana(out, endTurnPlayer);
-			}
-			try {
-				Thread.sleep(200);
-			} catch (InterruptedException e) {
-				e.printStackTrace();
+				gameState.getView().setPlayer2Mana(endTurnPlayer);
 			}
+			gameState.getView().pause(200);
 
 			// The player to start turn gets mana (turn + 1)
 			int opponentMana = gameState.getCurrentTurn() + 1;
@@ -51,31 +60,25 @@ public class EndTurnClicked implements EventProcessor{
 			}
 			startTurnPlayer.setMana(opponentMana);
 			if (startTurnPlayer instanceof HumanPlayer) {
-				BasicCommands.setPlayer1Mana(out, startTurnPlayer);
+				gameState.getView().setPlayer1Mana(startTurnPlayer);
 			} else if (startTurnPlayer instanceof AIController) {
-				BasicCommands.setPlayer2Mana(out, startTurnPlayer);
-			}
-			try {
-				Thread.sleep(500);
-			} catch (InterruptedException e) {
-				e.printStackTrace();
+				gameState.getView().setPlayer2Mana(startTurnPlayer);
 			}
+			gameState.getView().pause(500);
 
 			// Switch to the opponent's turn in GameState
 			gameState.nextTurn();
 
 			// Draw a card for the player ending turn
 			if (endTurnPlayer instanceof HumanPlayer) {
-				BasicCommands.addPlayer1Notification(out, "AI's Turn", 1);
+				gameState.getView().addPlayer1Notification("AI's Turn", 1);
 				endTurnPlayer.drawCard(gameState);
-				try {
-					Thread.sleep(2000);
-				} catch (InterruptedException e) {
-					e.printStackTrace();
+				gameState.getView().pause(2000);
+				if (playAiTurn) {
+					((AIController) startTurnPlayer).playCard(null, out, gameState);  // AI plays a card automatically and after that triggers end turn
 				}
-				((AIController) startTurnPlayer).playCard(null, out, gameState);  // AI plays a card automatically and after that triggers end turn
 			} else if (endTurnPlayer instanceof AIController) {
-				BasicCommands.addPlayer1Notification(out, "Your Turn", 1);
+				gameState.getView().addPlayer1Notification("Your Turn", 1);
 				endTurnPlayer.drawCard(gameState);  // AI draws a card automatically
 			}
 		}
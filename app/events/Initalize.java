@@ -9,7 +9,6 @@ import structures.AIController;
 import structures.GameState;
 import structures.HumanPlayer;
 import structures.basic.Board;
-import commands.BasicCommands;
 import structures.basic.Player;
 import structures.basic.Unit;
 import utils.BasicObjectBuilders;
@@ -36,52 +35,39 @@ public class Initalize implements EventProcessor {
 		gameState.initializePlayers(player1, player2); //passing them to gameState
 
 		// Initialize the board
-		Board board = new Board(out);
+		Board board = new Board(gameState.getView());
 		gameState.setBoard(out, board);
 
 		// Set Player 1 & 2 health
-		BasicCommands.setPlayer1Health(out, player1);
-		BasicCommands.setPlayer2Health(out, player2);
-		try {
-			Thread.sleep(200);
-		} catch (InterruptedException e) {
-			System.out.println("Error");
-		}
+		gameState.getView().setPlayer1Health(player1);
+		gameState.getView().setPlayer2Health(player2);
+		gameState.getView().pause(200);
 
 		//set Attack and Health for both Avatars
 		Unit player1Avatar = player1.getAvatar();
-		BasicCommands.setUnitAttack(out, player1Avatar, 2);
-		BasicCommands.setUnitHealth(out, player1Avatar, 20);
+		gameState.getView().setUnitAttack(player1Avatar, 2);
+		gameState.getView().setUnitHealth(player1Avatar, 20);
 		player1Avatar.setCurrentHealth(20);
 		player1Avatar.setAttackPower(2);
 		player1Avatar.setAvatar(true); // Mark as avatar
 
 		Unit player2Avatar = player2.getAvatar();
-		BasicCommands.setUnitAttack(out, player2Avatar, 2);
-		BasicCommands.setUnitHealth(out, player2Avatar, 20);
+		gameState.getView().setUnitAttack(player2Avatar, 2);
+		gameState.getView().setUnitHealth(player2Avatar, 20);
 		player2Avatar.setCurrentHealth(20);
 		player2Avatar.setAttackPower(2);
 		player2Avatar.setAvatar(true); // Mark as avatar
 
-		try {
-			Thread.sleep(200);
-		} catch (InterruptedException e) {
-			System.out.println("Error");
-		}
+		gameState.getView().pause(200);
 
 		// set Mana to 2 at the start of the game
 		player1.setMana(2);
-		BasicCommands.setPlayer1Mana(out, player1);
+		gameState.getView().setPlayer1Mana(player1);
 
 		// Draw initial hands
 		player1.drawInitialHand(gameState);
 		player2.drawInitialHand(gameState);
 
-		//set Avatar owners
-		player1.getAvatar().setOwner(player1);
-		player2.getAvatar().setOwner(player2);
-	
-
 
 		// Mark the game as initialized
 		gameState.setGameInitialized(true);
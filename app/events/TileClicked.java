@@ -4,11 +4,9 @@ package events;
 import com.fasterxml.jackson.databind.JsonNode;
 
 import akka.actor.ActorRef;
-import commands.BasicCommands;
 import structures.*;
 import structures.basic.*;
 
-import static java.lang.Thread.sleep;
 
 /**
  * Indicates that the user has clicked an object on the game canvas, in this case a tile.
@@ -93,17 +91,17 @@ public class TileClicked implements EventProcessor {
 
     private void highlightValidTiles(GameState gameState, ActorRef out) {
         for (Tile tile: gameState.getHighlightedTiles()) {
-            BasicCommands.drawTile(out, tile,1);
+            gameState.getView().drawTile(tile,1);
         }
         for(Tile tile: gameState.getRedHighlightedTiles()) {
-            BasicCommands.drawTile(out,tile,2);
+            gameState.getView().drawTile(tile,2);
         }
 
     }
 
     private void highlightValidAttackTiles(GameState gameState, ActorRef out) {
         for(Tile tile: gameState.getRedHighlightedTiles()) {
-            BasicCommands.drawTile(out,tile,2);
+            gameState.getView().drawTile(tile,2);
         }
     }
    
@@ -1,8 +1,8 @@
 package structures;
 
 import akka.actor.ActorRef;
-import commands.BasicCommands;
 import events.EndTurnClicked;
+import structures.basic.Board;
 import structures.basic.Card;
 import structures.basic.Player;
 import structures.basic.Tile;
@@ -15,6 +15,7 @@ import java.util.stream.Collectors;
 public class AIController extends Player {
     private final List<Card> deck;  // All available cards
     private final ActorRef out;
+    private final int[] moveBuffer = new int[Board.SIZE]; // Reused by calculateBestMove
 
     public AIController(int health, int mana, ActorRef out) {
         super(health, mana);
@@ -23,6 +24,13 @@ public class AIController extends Player {
         this.out = out;
     }
 
+    /**
+     * Returns the cards left in the deck, top first.
+     */
+    public List<Card> getDeck() {
+        return Collections.unmodifiableList(deck);
+    }
+
     public void drawInitialHand(GameState gameState) {
         for (int i = 0; i < 3; i++) {
             drawCard(gameState);
@@ -38,13 +46,13 @@ public class AIController extends Player {
      */
     public void drawCard(GameState gameState) {
         if (getHand().size() < 6 && !deck.isEmpty()) {
-            Card newCard = deck.remove(0);
-            getHand().add(newCard);
+            Card newCard = drawFromDeck(deck);
+            addToHand(newCard);
         } else if (!deck.isEmpty()) {
-            deck.remove(0); //regardless, player loses their card
+            drawFromDeck(deck); //regardless, player loses their card
         }
         if (deck.isEmpty() && getHand().isEmpty()) {//if deck is empty and hand is empty too, game over
-            BasicCommands.addPlayer1Notification(out, "Deck finished", 2);
+            gameState.getView().addPlayer1Notification("Deck finished", 2);
             Player winner = gameState.getPlayer1();
             gameState.endGame(winner, out);
         }
@@ -66,11 +74,7 @@ public class AIController extends Player {
         // Step 1: Play a card and summon if possible
         selectCardToPlay(gameState);
 
-        try {
-            Thread.sleep(1000); // 500ms delay
-        } catch (InterruptedException e) {
-            throw new RuntimeException(e);
-        }
+        gameState.getView().pause(1000); // 500ms delay
 
         // Step 2: Move units
         Unit unitToMove = decideWhichUnitToMove(gameState);
@@ -86,20 +90,12 @@ public class AIController extends Player {
             }
         }
 
-        try {
-            Thread.sleep(1000); // 1 second delay
-        } catch (InterruptedException e) {
-            throw new RuntimeException(e);
-        }
+        gameState.getView().pause(1000); // 1 second delay
 
         // Step 3: Attack with units
         attackWithUnits(out, gameState);
 
-        try {
-            Thread.sleep(1000); // 500ms delay
-        } catch (InterruptedException e) {
-            throw new RuntimeException(e);
-        }
+        gameState.getView().pause(1000); // 500ms delay
 
         // Step 4: Trigger end turn event processor
         EndTurnClicked endTurnEvent = new EndTurnClicked();
@@ -126,11 +122,7 @@ public class AIController extends Player {
                 if (cardPlayed) {
                     updateAfterCardPlayed(cardToPlay);
                     // Small delay between card plays
-                    try {
-                        Thread.sleep(200);
-                    } catch (InterruptedException e) {
-                        throw new RuntimeException(e);
-                    }
+                    gameState.getView().pause(200);
                 }
             }
         } while (cardPlayed);
@@ -169,7 +161,7 @@ public class AIController extends Player {
         if (card.getIsCreature()) {
             return true; // We'll check for summon tiles later
         } else {
-            SpellEffect spellEffect = SpellEffectMap.getSpellEffectForCard(card.getCardname());
+            SpellEffect spellEffect = CardDefinitions.getSpellEffect(card);
             if (spellEffect != null) {
                 spellEffect.highlightValidTargets(out, gameState, null);
 
@@ -203,11 +195,7 @@ public class AIController extends Player {
             gameState.addRedHighlightedTile(targetTile);
             gameState.setSelectedCard(card);
 
-            try {
-                Thread.sleep(500); // Slight delay before playing spell
-            } catch (InterruptedException e) {
-                throw new RuntimeException(e);
-            }
+            gameState.getView().pause(500); // Slight delay before playing spell
 
             System.out.println("Playing spell: " + card.getCardname() + " at tile (" + targetTile.getTilex() + "," + targetTile.getTiley() + ")");
             gameState.handleSpellCardClick(out, targetTile);
@@ -221,7 +209,7 @@ public class AIController extends Player {
 
     private void updateAfterCardPlayed(Card card) {
         setMana(getMana() - card.getManacost());
-        getHand().remove(card);
+        removeFromHand(card);
     }
 
     /**
@@ -234,7 +222,7 @@ public class AIController extends Player {
      * @return The selected target tile for the spell, or {@code null} if no valid target is found.
      */
     private Tile selectTargetTile(Card card, GameState gameState) {
-        SpellEffect spellEffect = SpellEffectMap.getSpellEffectForCard(card.getCardname());
+        SpellEffect spellEffect = CardDefinitions.getSpellEffect(card);
         if (spellEffect != null) {
             spellEffect.highlightValidTargets(out, gameState, null);
         }
@@ -253,11 +241,11 @@ public class AIController extends Player {
         String cardName = card.getCardname();
         switch (cardName) {
             case "Sundrop Elixir":
-                return selectSundropElixirTarget(validTiles);
+                return selectSundropElixirTarget(validTiles, gameState.getBoard());
             case "Truestrike":
-                return selectTrueStrikeTarget(validTiles);
+                return selectTrueStrikeTarget(validTiles, gameState.getBoard());
             case "Beamshock":
-                return selectBeamShockTarget(validTiles);
+                return selectBeamShockTarget(validTiles, gameState.getBoard());
             default:
                 // Default to random selection
                 Random rand = new Random();
@@ -266,12 +254,12 @@ public class AIController extends Player {
     }
 
     // Target unit with highest attack power that is damaged
-    private Tile selectSundropElixirTarget(List<Tile> validTiles) {
+    private Tile selectSundropElixirTarget(List<Tile> validTiles, Board board) {
         Tile bestTile = null;
         int bestScore = -1;
 
         for (Tile tile : validTiles) {
-            Unit unit = tile.getUnit();
+            Unit unit = board.getUnitOnTile(tile);
             if (unit != null) {
                 // Skip units at full health
                 if (unit.getCurrentHealth() >= unit.getMaxHealth()) {
@@ -298,10 +286,10 @@ public class AIController extends Player {
     }
 
     // Target units that would die from 2 damage
-    private Tile selectTrueStrikeTarget(List<Tile> validTiles) {
+    private Tile selectTrueStrikeTarget(List<Tile> validTiles, Board board) {
         // First priority: Units that would die from 2 damage
         for (Tile tile : validTiles) {
-            Unit unit = tile.getUnit();
+            Unit unit = board.getUnitOnTile(tile);
             if (unit != null && unit.getCurrentHealth() <= 2) {
                 return tile;
             }
@@ -309,7 +297,7 @@ public class AIController extends Player {
 
         // Second priority: Enemy avatar
         for (Tile tile : validTiles) {
-            Unit unit = tile.getUnit();
+            Unit unit = board.getUnitOnTile(tile);
             if (unit != null && unit.isAvatar()) {
                 return tile;
             }
@@ -320,7 +308,7 @@ public class AIController extends Player {
         int highestAttack = -1;
 
         for (Tile tile : validTiles) {
-            Unit unit = tile.getUnit();
+            Unit unit = board.getUnitOnTile(tile);
             if (unit != null && unit.getAttackPower() > highestAttack) {
                 highestAttack = unit.getAttackPower();
                 highestAttackTile = tile;
@@ -331,12 +319,12 @@ public class AIController extends Player {
     }
 
     // Target enemy unit with highest attack power
-    private Tile selectBeamShockTarget(List<Tile> validTiles) {
+    private Tile selectBeamShockTarget(List<Tile> validTiles, Board board) {
         Tile bestTile = null;
         int highestAttack = -1;
 
         for (Tile tile : validTiles) {
-            Unit unit = tile.getUnit();
+            Unit unit = board.getUnitOnTile(tile);
             if (unit != null) {
                 // Skip units that already attacked
                 if (unit.hasAttacked()) {
@@ -483,20 +471,27 @@ public class AIController extends Player {
 
 
     private Tile calculateBestMove(Tile currentTile, Unit targetUnit, GameState gameState, boolean moveAway) {
-        int currentX = currentTile.getTilex();
-        int currentY = currentTile.getTiley();
-        Tile targetTile = gameState.getBoard().getTileForUnit(targetUnit);
+        Board board = gameState.getBoard();
+        Tile targetTile = board.getTileForUnit(targetUnit);
 
-        // Get valid movement tiles (this updates highlightedTiles list in GameState)
-        gameState.getValidMovementTiles(currentX, currentY, null);
-        List<Tile> movementTiles = gameState.getHighlightedTiles();
+        // Get valid movement tiles into the reusable buffer (does not touch the highlight lists)
+        int count = gameState.getMovementTiles(Board.tileIndex(currentTile), moveBuffer);
 
-        if (movementTiles.isEmpty()) return null; // No valid moves
+        if (count == 0) return null; // No valid moves
 
         // Find the best tile based on distance
-        return movementTiles.stream().min(Comparator.comparingInt(tile -> moveAway ? calculateDistance(tile, targetTile) * -1 : // Move away increases distance
-                        calculateDistance(tile, targetTile))) // Move towards decreases distance
-                .orElse(null);
+        Tile bestTile = null;
+        int bestScore = Integer.MAX_VALUE;
+        for (int i = 0; i < count; i++) {
+            Tile tile = board.getTile(moveBuffer[i]);
+            int distance = calculateDistance(tile, targetTile);
+            int score = moveAway ? -distance : distance; // Move away increases distance, move towards decreases it
+            if (score < bestScore) {
+                bestScore = score;
+                bestTile = tile;
+            }
+        }
+        return bestTile;
     }
 
     /**
@@ -517,11 +512,7 @@ public class AIController extends Player {
             }
 
             gameState.getValidAttackTiles(tile); // Get the attackable tiles for this unit
-            try {
-                Thread.sleep(400); // 1 second delay
-            } catch (InterruptedException e) {
-                throw new RuntimeException(e);
-            }
+            gameState.getView().pause(400); // 1 second delay
             List<Tile> attackableTiles = gameState.getRedHighlightedTiles(); // Get attackable tiles for this unit
 
             // Check if there are valid attackable tiles, if not stop
@@ -540,11 +531,7 @@ public class AIController extends Player {
                 System.out.println("No valid target found for unit: " + unit.getName());
             }
             gameState.clearAllHighlights(out);
-            try {
-                Thread.sleep(1000); // 1 second delay
-            } catch (InterruptedException e) {
-                throw new RuntimeException(e);
-            }
+            gameState.getView().pause(1000); // 1 second delay
         }
     }
 
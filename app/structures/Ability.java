@@ -6,4 +6,12 @@ import structures.basic.Unit;
 
 public interface Ability {
     void triggerAbility(ActorRef out, GameState gameState, Tile sourceTile);
+
+    /**
+     * The event that fires this ability through GameState.fireTrigger, or null for abilities
+     * that are only checked directly (e.g. Flying, Rush).
+     */
+    default AbilityTrigger getTrigger() {
+        return null;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,14 @@
+package structures;
+
+/**
+ * The game events an ability can react to. Each ability names its trigger through
+ * Ability.getTrigger, and the board keeps a mask of the cells holding units subscribed
+ * to each trigger, so firing one only visits the units that care about it.
+ */
+public enum AbilityTrigger {
+    ON_DEATH,      // Any unit on the board dies (Deathwatch)
+    ON_SUMMON,     // Any unit is summoned (Opening Gambit)
+    ON_MOVE,       // The unit itself arrives on a tile, by being summoned or moving (Provoke)
+    ON_HIT,        // The owner's avatar takes damage (Zeal)
+    ON_TURN_START  // The owner's turn begins
+}
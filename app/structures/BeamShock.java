@@ -1,7 +1,6 @@
 package structures;
 
 import akka.actor.ActorRef;
-import commands.BasicCommands;
 import structures.basic.Tile;
 import structures.basic.Unit;
 import structures.basic.UnitAnimationType;
@@ -28,17 +27,13 @@ public class BeamShock implements SpellEffect {
     @Override
     public void applyEffect(ActorRef out, GameState gameState, Tile targetTile) {
         //Stun enemy units for one turn
-        BasicCommands.drawTile(out, targetTile, 2);
-        BasicCommands.addPlayer1Notification(out,"unit is stunned",3);
+        gameState.getView().drawTile(targetTile, 2);
+        gameState.getView().addPlayer1Notification("unit is stunned",3);
 
-        try {
-            Thread.sleep(700);
-        } catch (InterruptedException e) {
-            throw new RuntimeException(e);
-        }
+        gameState.getView().pause(700);
         Unit unit = gameState.getBoard().getUnitOnTile(targetTile);
         unit.setStunned(true);
-        BasicCommands.playUnitAnimation(out, unit, UnitAnimationType.idle);
-        BasicCommands.drawTile(out, targetTile, 0);
+        gameState.getView().playUnitAnimation(unit, UnitAnimationType.idle);
+        gameState.getView().drawTile(targetTile, 0);
     }
 }
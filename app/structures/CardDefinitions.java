@@ -0,0 +1,217 @@
+package structures;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import structures.basic.Card;
+import utils.BasicObjectBuilders;
+import utils.ConfigPreloader;
+import utils.OrderedCardLoader;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * The abilities of creature cards and the effects of spell cards, as declared in the card
+ * configuration files (conf/gameconfs/cards/*.json):
+ * <pre>
+ *   "abilities": ["Zeal", "Provoke"]
+ *   "spell": { "effect": "TrueStrike", "damage": 2 }
+ * </pre>
+ * The files are compiled once into a table indexed by a dense definition id, which each Card
+ * remembers after its first lookup, so later lookups are an array access. A card keeps its id
+ * across reloads, so a balance change can be picked up with reloadIfChanged without restarting
+ * (the card and unit templates are read again at the same time, so costs and stats follow).
+ * Reloading is never done by a game, only when asked for, see AdminController.
+ */
+public final class CardDefinitions {
+
+    // Names usable in the card files
+    private static final Map<String, Supplier<Ability>> ABILITIES = new HashMap<>();
+    private static final Map<String, Function<JsonNode, SpellEffect>> SPELLS = new HashMap<>();
+
+    static {
+        ABILITIES.put("Deathwatch", Deathwatch::new);
+        ABILITIES.put("OpeningGambit", OpeningGambit::new);
+        ABILITIES.put("Provoke", Provoke::new);
+        ABILITIES.put("Flying", Flying::new);
+        ABILITIES.put("Zeal", ZealAbility::new);
+        ABILITIES.put("Rush", RushAbility::new);
+
+        SPELLS.put("WraithlingSwarm", params -> new WraithlingSwarm());
+        SPELLS.put("DarkTerminus", params -> new DarkTerminusEffect());
+        SPELLS.put("HornOfTheForsaken", params -> new HornOfTheForsaken(params.path("robustness").asInt(3)));
+        SPELLS.put("TrueStrike", params -> new TrueStrike(params.path("damage").asInt(2)));
+        SPELLS.put("SundropElixir", params -> new SundropElixir(params.path("heal").asInt(4)));
+        SPELLS.put("BeamShock", params -> new BeamShock());
+    }
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+    private static volatile Table table = new Table(Collections.<String, Integer>emptyMap(),
+            Collections.<List<Ability>>emptyList(), Collections.<SpellEffect>emptyList(), 0);
+
+    static {
+        try {
+            table = compile(table);
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    private CardDefinitions() {
+    }
+
+    /**
+     * One compiled set of card files. Never changed once published.
+     */
+    private static final class Table {
+        final Map<String, Integer> ids; // Card name -> definition id
+        final List<List<Ability>> abilities; // Indexed by definition id
+        final List<SpellEffect> spells; // Indexed by definition id, null for creatures
+        final long stamp; // See filesStamp
+
+        Table(Map<String, Integer> ids, List<List<Ability>> abilities, List<SpellEffect> spells, long stamp) {
+            this.ids = ids;
+            this.abilities = abilities;
+            this.spells = spells;
+            this.stamp = stamp;
+        }
+    }
+
+    /**
+     * Returns the abilities of a creature card (empty for spells and plain creatures). The
+     * list is shared by every unit summoned from the card and must not be modified.
+     */
+    public static List<Ability> getAbilities(Card card) {
+        Table current = table;
+        int id = idOf(current, card);
+        return id < current.abilities.size() ? current.abilities.get(id) : Collections.<Ability>emptyList();
+    }
+
+    /**
+     * Returns the effect of a spell card, or null if the card is not a spell.
+     */
+    public static SpellEffect getSpellEffect(Card card) {
+        Table current = table;
+        int id = idOf(current, card);
+        return id < current.spells.size() ? current.spells.get(id) : null;
+    }
+
+    private static int idOf(Table current, Card card) {
+        int id = card.getDefinitionId();
+        if (id < 0) {
+            Integer known = current.ids.get(card.getCardname());
+            if (known == null) {
+                return Integer.MAX_VALUE; // Not in the card files, no abilities or effect
+            }
+            id = known;
+            card.setDefinitionId(id);
+        }
+        return id;
+    }
+
+    /**
+     * Reads the card files again if any of them changed since they were last read.
+     *
+     * @return True if a new table was published.
+     */
+    public static boolean reloadIfChanged() {
+        return filesStamp() != table.stamp && reload();
+    }
+
+    /**
+     * Reads and compiles the card files, and reads the templates again since costs and stats
+     * come from the same files. Games keep using the current table and templates until the
+     * new ones are complete. If a file names an unknown ability or spell, the current table
+     * is kept and the error is printed.
+     *
+     * @return True if a new table was published.
+     */
+    public static synchronized boolean reload() {
+        try {
+            Table compiled = compile(table);
+            BasicObjectBuilders.reload(ConfigPreloader.configDIR);
+            table = compiled;
+            return true;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    private static Table compile(Table previous) throws Exception {
+        long stamp = filesStamp();
+        Map<String, Integer> ids = new HashMap<>(previous.ids); // Keep the ids cards already remember
+        List<List<Ability>> abilities = new ArrayList<>();
+        List<SpellEffect> spells = new ArrayList<>();
+
+        for (File file : cardFiles()) {
+            JsonNode node = mapper.readTree(file);
+            String name = node.path("cardname").asText();
+            Integer id = ids.get(name);
+            if (id == null) {
+                id = ids.size();
+                ids.put(name, id);
+            }
+            while (abilities.size() <= id) {
+                abilities.add(Collections.<Ability>emptyList());
+                spells.add(null);
+            }
+            abilities.set(id, compileAbilities(file, node.path("abilities")));
+            spells.set(id, compileSpell(file, node.path("spell")));
+        }
+
+        return new Table(Collections.unmodifiableMap(ids), abilities, spells, stamp);
+    }
+
+    private static List<Ability> compileAbilities(File file, JsonNode names) {
+        if (names.size() == 0) {
+            return Collections.emptyList();
+        }
+        List<Ability> abilities = new ArrayList<>(names.size());
+        for (JsonNode name : names) {
+            Supplier<Ability> factory = ABILITIES.get(name.asText());
+            if (factory == null) {
+                throw new IllegalArgumentException(file + ": unknown ability " + name);
+            }
+            abilities.add(factory.get());
+        }
+        return Collections.unmodifiableList(abilities);
+    }
+
+    private static SpellEffect compileSpell(File file, JsonNode params) {
+        if (params.isMissingNode()) {
+            return null;
+        }
+        Function<JsonNode, SpellEffect> factory = SPELLS.get(params.path("effect").asText());
+        if (factory == null) {
+            throw new IllegalArgumentException(file + ": unknown spell effect " + params.path("effect"));
+        }
+        return factory.apply(params);
+    }
+
+    private static File[] cardFiles() {
+        File[] files = new File(OrderedCardLoader.cardsDIR).listFiles((dir, name) -> name.endsWith(".json"));
+        if (files == null) {
+            return new File[0];
+        }
+        Arrays.sort(files);
+        return files;
+    }
+
+    // Changes when a card file is added, removed or modified
+    private static long filesStamp() {
+        File[] files = cardFiles();
+        long newest = 0;
+        for (File file : files) {
+            newest = Math.max(newest, file.lastModified());
+        }
+        return newest * 31 + files.length;
+    }
+}
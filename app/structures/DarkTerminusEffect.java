@@ -3,7 +3,6 @@ package structures;
 import java.util.List;
 
 import akka.actor.ActorRef;
-import commands.BasicCommands;
 import structures.basic.Unit;
 import structures.basic.UnitAnimationType;
 import utils.BasicObjectBuilders;
@@ -27,7 +26,7 @@ public class DarkTerminusEffect implements SpellEffect {
         for (Tile enemyTile : enemyTiles) {
             Unit unitOnTile = gameState.getBoard().getUnitOnTile(enemyTile);
             if (unitOnTile != null && !unitOnTile.isAvatar()) {
-                BasicCommands.drawTile(out, enemyTile, 2); // Highlight mode = 2 (Red)
+                gameState.getView().drawTile(enemyTile, 2); // Highlight mode = 2 (Red)
                 gameState.addRedHighlightedTile(enemyTile); // Track highlighted tiles
             }
         }
@@ -43,7 +42,7 @@ public class DarkTerminusEffect implements SpellEffect {
             if (enemyUnit == null) {
                 return;
             }
-            gameState.getBoard().removeUnitFromTile(targetTile, out);
+            gameState.getBoard().removeUnitFromTile(gameState, targetTile);
 
             // Summon a Wraithling on the same tile
             Unit wraithling = BasicObjectBuilders.loadUnit(StaticConfFiles.wraithling, gameState.getNextUnitId(), Unit.class);
@@ -55,16 +54,12 @@ public class DarkTerminusEffect implements SpellEffect {
             gameState.getBoard().placeUnitOnTile(gameState, wraithling, targetTile, false);
 
             // Add a small delay to ensure the unit is drawn
-            try {
-                Thread.sleep(100); // 100ms delay
-            } catch (InterruptedException e) {
-                e.printStackTrace();
-            }
+            gameState.getView().pause(100); // 100ms delay
 
             // Update the UI
-            BasicCommands.setUnitHealth(out, wraithling, wraithling.getCurrentHealth());
-            BasicCommands.setUnitAttack(out, wraithling, wraithling.getAttackPower());
-            BasicCommands.playUnitAnimation(out, wraithling, UnitAnimationType.idle);
+            gameState.getView().setUnitHealth(wraithling, wraithling.getCurrentHealth());
+            gameState.getView().setUnitAttack(wraithling, wraithling.getAttackPower());
+            gameState.getView().playUnitAnimation(wraithling, UnitAnimationType.idle);
 
 
 
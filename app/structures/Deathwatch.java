@@ -1,7 +1,6 @@
 package structures;
 
 import akka.actor.ActorRef;
-import commands.BasicCommands;
 import structures.basic.Player;
 import structures.basic.Tile;
 import structures.basic.Unit;
@@ -24,6 +23,11 @@ import java.util.Random;
  */
 public class Deathwatch implements Ability {
 
+    @Override
+    public AbilityTrigger getTrigger() {
+        return AbilityTrigger.ON_DEATH;
+    }
+
     @Override
     public void triggerAbility(ActorRef out, GameState gameState, Tile sourceTile) {
         Unit sourceUnit = gameState.getBoard().getUnitOnTile(sourceTile);
@@ -33,8 +37,8 @@ public class Deathwatch implements Ability {
             case "Bad Omen":
                 int updatedattack = sourceUnit.getAttackPower() + 1;
                 sourceUnit.setAttackPower(updatedattack); // Permanent +1 Attack
-                BasicCommands.setUnitAttack(out,sourceUnit, updatedattack);
-                BasicCommands.addPlayer1Notification(out,"Deathwatch Triggered", 3);
+                gameState.getView().setUnitAttack(sourceUnit, updatedattack);
+                gameState.getView().addPlayer1Notification("Deathwatch Triggered", 3);
                 break;
             case "Shadow Watcher":
                 sourceUnit.setAttackPower(sourceUnit.getAttackPower() + 1); // Permanent +1 Attack
@@ -46,9 +50,9 @@ public class Deathwatch implements Ability {
                     sourceUnit.setCurrentHealth(sourceUnit.getCurrentHealth() + 1);
                 }
 
-                BasicCommands.setUnitAttack(out,sourceUnit, sourceUnit.getAttackPower());
-                BasicCommands.setUnitHealth(out,sourceUnit,sourceUnit.getCurrentHealth());
-                BasicCommands.addPlayer1Notification(out,"Deathwatch Triggered", 3);
+                gameState.getView().setUnitAttack(sourceUnit, sourceUnit.getAttackPower());
+                gameState.getView().setUnitHealth(sourceUnit,sourceUnit.getCurrentHealth());
+                gameState.getView().addPlayer1Notification("Deathwatch Triggered", 3);
                 break;
             case "Bloodmoon Priestess": //summon wraithling on randomly selected unoccupied tile
                 Unit unit = gameState.getBoard().getUnitOnTile(sourceTile);
@@ -79,18 +83,14 @@ public class Deathwatch implements Ability {
                     gameState.getBoard().placeUnitOnTile(gameState,wraithling, randomTile, false);
 
                     // Add a small delay for place Unit to complete
-                    try {
-                        Thread.sleep(500); // 500ms delay
-                    } catch (InterruptedException e) {
-                        e.printStackTrace();
-                    }
+                    gameState.getView().pause(500); // 500ms delay
 
                     // Update the UI
-                    BasicCommands.setUnitHealth(out, wraithling, wraithling.getCurrentHealth());
-                    BasicCommands.setUnitAttack(out, wraithling, wraithling.getAttackPower());
-                    BasicCommands.playUnitAnimation(out, wraithling, UnitAnimationType.idle);
+                    gameState.getView().setUnitHealth(wraithling, wraithling.getCurrentHealth());
+                    gameState.getView().setUnitAttack(wraithling, wraithling.getAttackPower());
+                    gameState.getView().playUnitAnimation(wraithling, UnitAnimationType.idle);
                 }
-                BasicCommands.addPlayer1Notification(out,"Deathwatch Triggered", 3);
+                gameState.getView().addPlayer1Notification("Deathwatch Triggered", 3);
                 break;
             case "Shadowdancer":
                 // Deal 1 damage to the enemy avatar and heal the player by 1
@@ -111,13 +111,13 @@ public class Deathwatch implements Ability {
 
                 int updatedHealth = enemyAvatar.getCurrentHealth() - 1;
                 enemyAvatar.setCurrentHealth(updatedHealth);
-                BasicCommands.setUnitHealth(out, enemyAvatar,updatedHealth);
+                gameState.getView().setUnitHealth(enemyAvatar,updatedHealth);
 
                 opponent.setHealth(updatedHealth);
                 if (opponent == gameState.getPlayer1()) {
-                    BasicCommands.setPlayer1Health(out,opponent);
+                    gameState.getView().setPlayer1Health(opponent);
                 } else if (opponent == gameState.getPlayer2()) {
-                    BasicCommands.setPlayer2Health(out,opponent);
+                    gameState.getView().setPlayer2Health(opponent);
                 }
 
                 Unit currentAvatar = current.getAvatar();
@@ -127,15 +127,15 @@ public class Deathwatch implements Ability {
                     updatedHealthCurrent = 20;
                 }
                 currentAvatar.setCurrentHealth(updatedHealthCurrent);
-                BasicCommands.setUnitHealth(out, currentAvatar,updatedHealthCurrent);
+                gameState.getView().setUnitHealth(currentAvatar,updatedHealthCurrent);
 
                 current.setHealth(updatedHealthCurrent);
                 if (current == gameState.getPlayer1()) {
-                    BasicCommands.setPlayer1Health(out,current);
+                    gameState.getView().setPlayer1Health(current);
                 } else if (opponent == gameState.getPlayer2()) {
-                    BasicCommands.setPlayer2Health(out,current);
+                    gameState.getView().setPlayer2Health(current);
                 }
-                BasicCommands.addPlayer1Notification(out,"Deathwatch Triggered", 3);
+                gameState.getView().addPlayer1Notification("Deathwatch Triggered", 3);
                 break;
         }
     } 
@@ -0,0 +1,16 @@
+package structures;
+
+/**
+ * What can happen during a game, published on the GameEventBus of a GameState. Each event
+ * comes with a unit and a tile, either of which may be null where noted.
+ */
+public enum GameEvent {
+    UNIT_SUMMONED, // A unit was placed on the board; the tile it was placed on
+    UNIT_MOVED,    // A unit on the board moved; the tile it moved from
+    UNIT_REMOVED,  // A unit was taken off the board, for any reason; the tile it was on
+    UNIT_DAMAGED,  // A unit took damage and survived or not; its tile
+    UNIT_DIED,     // A unit died and has already been removed; the tile it was on
+    AVATAR_HIT,    // An avatar took damage and survived; its tile
+    TURN_ENDED,    // The current player's turn is over; no unit or tile
+    TURN_STARTED   // The new current player's turn begins; no unit or tile
+}
\ No newline at end of file
@@ -0,0 +1,145 @@
+package structures;
+
+import structures.basic.Tile;
+import structures.basic.Unit;
+
+import java.util.Arrays;
+
+/**
+ * Delivers GameEvents to the listeners subscribed to them. A listener chooses its delivery
+ * when subscribing:
+ * - IMMEDIATE listeners run inside publish, before the code that published carries on.
+ * - BATCHED listeners see events only when flush is called at the end of an action, in the
+ *   order they were published. Events published while flushing are delivered in the same flush.
+ * <p>
+ * Listeners are kept in small arrays per event, so publishing only visits the subscribers of
+ * that event and allocates nothing. Subscribing while an event is being delivered is safe,
+ * the new listener only sees later events.
+ */
+public final class GameEventBus {
+
+    public enum Delivery {
+        IMMEDIATE,
+        BATCHED
+    }
+
+    private static final int INITIAL_LISTENERS = 4; // Per event and delivery
+    private static final int EVENT_COUNT = GameEvent.values().length;
+
+    private final GameEventListener[][] immediate = new GameEventListener[EVENT_COUNT][INITIAL_LISTENERS];
+    private final int[] immediateCount = new int[EVENT_COUNT];
+    private final GameEventListener[][] batched = new GameEventListener[EVENT_COUNT][INITIAL_LISTENERS];
+    private final int[] batchedCount = new int[EVENT_COUNT];
+
+    // Events waiting for the batched listeners, in publishing order
+    private GameEvent[] queuedEvents = new GameEvent[32];
+    private Unit[] queuedUnits = new Unit[32];
+    private Tile[] queuedTiles = new Tile[32];
+    private int queued;
+    private boolean flushing;
+
+    public void subscribe(GameEvent event, GameEventListener listener, Delivery delivery) {
+        int slot = event.ordinal();
+        if (delivery == Delivery.IMMEDIATE) {
+            immediate[slot] = append(immediate[slot], immediateCount[slot]++, listener);
+        } else {
+            batched[slot] = append(batched[slot], batchedCount[slot]++, listener);
+        }
+    }
+
+    public void subscribe(GameEvent event, GameEventListener listener) {
+        subscribe(event, listener, Delivery.IMMEDIATE);
+    }
+
+    private static GameEventListener[] append(GameEventListener[] listeners, int index, GameEventListener listener) {
+        if (index == listeners.length) {
+            listeners = Arrays.copyOf(listeners, listeners.length * 2);
+        }
+        listeners[index] = listener;
+        return listeners;
+    }
+
+    /**
+     * Removes a listener from an event, whichever delivery it chose.
+     */
+    public void unsubscribe(GameEvent event, GameEventListener listener) {
+        int slot = event.ordinal();
+        immediateCount[slot] = remove(immediate, slot, immediateCount[slot], listener);
+        batchedCount[slot] = remove(batched, slot, batchedCount[slot], listener);
+    }
+
+    // Replaces the array rather than shifting it, so a delivery in progress is not disturbed
+    private static int remove(GameEventListener[][] table, int slot, int count, GameEventListener listener) {
+        GameEventListener[] listeners = table[slot];
+        for (int i = 0; i < count; i++) {
+            if (listeners[i] == listener) {
+                GameEventListener[] remaining = new GameEventListener[listeners.length];
+                System.arraycopy(listeners, 0, remaining, 0, i);
+                System.arraycopy(listeners, i + 1, remaining, i, count - i - 1);
+                table[slot] = remaining;
+                return count - 1;
+            }
+        }
+        return count;
+    }
+
+    public boolean hasListeners(GameEvent event) {
+        return immediateCount[event.ordinal()] + batchedCount[event.ordinal()] > 0;
+    }
+
+    public void publish(GameState gameState, GameEvent event, Unit unit, Tile tile) {
+        int slot = event.ordinal();
+        GameEventListener[] listeners = immediate[slot];
+        int count = immediateCount[slot];
+        for (int i = 0; i < count; i++) {
+            listeners[i].onEvent(gameState, event, unit, tile);
+        }
+        if (batchedCount[slot] > 0) {
+            enqueue(event, unit, tile);
+        }
+    }
+
+    private void enqueue(GameEvent event, Unit unit, Tile tile) {
+        if (queued == queuedEvents.length) {
+            int capacity = queued * 2;
+            queuedEvents = Arrays.copyOf(queuedEvents, capacity);
+            queuedUnits = Arrays.copyOf(queuedUnits, capacity);
+            queuedTiles = Arrays.copyOf(queuedTiles, capacity);
+        }
+        queuedEvents[queued] = event;
+        queuedUnits[queued] = unit;
+        queuedTiles[queued] = tile;
+        queued++;
+    }
+
+    /**
+     * Delivers the queued events to the batched listeners. Called at the end of each action;
+     * does nothing if nothing is queued or a flush is already running.
+     */
+    public void flush(GameState gameState) {
+        if (flushing) {
+            return;
+        }
+        flushing = true;
+        try {
+            for (int e = 0; e < queued; e++) {
+                int slot = queuedEvents[e].ordinal();
+                GameEventListener[] listeners = batched[slot];
+                int count = batchedCount[slot];
+                for (int i = 0; i < count; i++) {
+                    listeners[i].onEvent(gameState, queuedEvents[e], queuedUnits[e], queuedTiles[e]);
+                }
+            }
+        } finally {
+            Arrays.fill(queuedEvents, 0, queued, null);
+            Arrays.fill(queuedUnits, 0, queued, null);
+            Arrays.fill(queuedTiles, 0, queued, null);
+            queued = 0;
+            flushing = false;
+        }
+    }
+
+    public int getQueuedCount() {
+        return queued;
+    }
+}
\ No newline at end of file
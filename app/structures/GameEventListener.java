@@ -0,0 +1,8 @@
+package structures;
+
+import structures.basic.Tile;
+import structures.basic.Unit;
+
+public interface GameEventListener {
+    void onEvent(GameState gameState, GameEvent event, Unit unit, Tile tile);
+}
\ No newline at end of file
@@ -0,0 +1,589 @@
+package structures;
+
+import structures.basic.Bitboard;
+import structures.basic.Board;
+import structures.basic.Card;
+import structures.basic.Player;
+import structures.basic.Unit;
+import structures.basic.Zobrist;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A compact copy of the game for look-ahead and simulation. Units are stored per board
+ * cell in primitive arrays, hands and decks as indices into a card table, and mana,
+ * health and turn as ints, so copy() is a handful of small array clones and no rules
+ * object (Unit, Tile, Card, Ability) is touched while searching.
+ * <p>
+ * Actions are encoded as ints (see move, attack, summon and END_TURN). apply() returns a
+ * new snapshot and leaves this one unchanged, play() changes this snapshot in place.
+ * <p>
+ * The simulation covers movement, attacks with counterattacks, artifact robustness,
+ * summoning creatures, Flying, Provoke, Rush, stun and the end of turn (mana and card draw).
+ * Spells and the other triggered abilities are not simulated.
+ * <p>
+ * Every change also updates a Zobrist hash in O(1) (see getHash), so search code can key
+ * transposition tables on it.
+ */
+public final class GameSnapshot {
+
+    // Sides
+    public static final int HUMAN = 0;
+    public static final int AI = 1;
+
+    // Action types
+    public static final int END_TURN = 0;
+    public static final int MOVE = 1;
+    public static final int ATTACK = 2;
+    public static final int SUMMON = 3;
+
+    // Unit flags, one int per cell
+    public static final int AVATAR = 1;
+    public static final int MOVED = 1 << 1;
+    public static final int ATTACKED = 1 << 2;
+    public static final int STUNNED = 1 << 3;
+    public static final int FLYING = 1 << 4;
+    public static final int PROVOKE = 1 << 5;
+    public static final int RUSH = 1 << 6;
+
+    public static final int MAX_HAND = 6;
+    // Upper bound for legalActions: END_TURN, a move to every cell and 8 attacks per unit, every summon
+    public static final int MAX_ACTIONS = 1 + Board.SIZE * (Board.SIZE + 8) + MAX_HAND * Board.SIZE;
+    private static final int MAX_MANA = 9;
+
+    private final CardTable cards; // Shared by every copy
+    private final int[][] decks; // Shared by every copy, only deckPosition moves
+
+    private final int[] attack;
+    private final int[] health;
+    private final int[] flags;
+    private final int[] types; // Zobrist.typeCode of each unit
+    private long occupied;
+    private final long[] owners; // slot 0 = human player, slot 1 = AI
+    private long provokers; // Cells holding a unit with Provoke
+
+    private final int[] avatarCell;
+    private final int[] mana;
+    private final int[] artifact; // Remaining artifact robustness per side
+    private final int[] hands; // MAX_HAND card indices per side
+    private final int[] handSize;
+    private final int[] deckPosition;
+    private int turn;
+    private int side; // Side to move
+    private int winner = -1;
+    private long hash;
+
+    private GameSnapshot(CardTable cards, int[][] decks) {
+        this.cards = cards;
+        this.decks = decks;
+        attack = new int[Board.SIZE];
+        health = new int[Board.SIZE];
+        flags = new int[Board.SIZE];
+        types = new int[Board.SIZE];
+        owners = new long[2];
+        avatarCell = new int[2];
+        mana = new int[2];
+        artifact = new int[2];
+        hands = new int[2 * MAX_HAND];
+        handSize = new int[2];
+        deckPosition = new int[2];
+    }
+
+    private GameSnapshot(GameSnapshot other) {
+        cards = other.cards;
+        decks = other.decks;
+        attack = other.attack.clone();
+        health = other.health.clone();
+        flags = other.flags.clone();
+        types = other.types.clone();
+        occupied = other.occupied;
+        owners = other.owners.clone();
+        provokers = other.provokers;
+        avatarCell = other.avatarCell.clone();
+        mana = other.mana.clone();
+        artifact = other.artifact.clone();
+        hands = other.hands.clone();
+        handSize = other.handSize.clone();
+        deckPosition = other.deckPosition.clone();
+        turn = other.turn;
+        side = other.side;
+        winner = other.winner;
+        hash = other.hash;
+    }
+
+    /**
+     * Captures the live game. This walks the object graph once; everything after that
+     * works on the snapshot alone.
+     */
+    public static GameSnapshot capture(GameState gameState) {
+        CardTable cards = new CardTable();
+        HumanPlayer human = (HumanPlayer) gameState.getPlayer1();
+        AIController ai = (AIController) gameState.getPlayer2();
+        int[][] decks = {cards.indicesOf(human.getDeck()), cards.indicesOf(ai.getDeck())};
+
+        GameSnapshot snapshot = new GameSnapshot(cards, decks);
+        snapshot.turn = gameState.getCurrentTurn();
+        snapshot.side = gameState.isHumanTurn() ? HUMAN : AI;
+        snapshot.capturePlayer(HUMAN, human);
+        snapshot.capturePlayer(AI, ai);
+
+        Board board = gameState.getBoard();
+        long remaining = board.getOccupiedMask();
+        while (remaining != 0) {
+            int cell = Long.numberOfTrailingZeros(remaining);
+            remaining &= remaining - 1;
+            Unit unit = board.getUnitOnTile(cell);
+            int owner = unit.getOwner() instanceof HumanPlayer ? HUMAN : AI;
+            snapshot.attack[cell] = unit.getAttackPower();
+            snapshot.health[cell] = unit.getCurrentHealth();
+            snapshot.flags[cell] = unitFlags(unit);
+            snapshot.types[cell] = Zobrist.typeCode(unit);
+            snapshot.occupied |= Bitboard.bit(cell);
+            snapshot.owners[owner] |= Bitboard.bit(cell);
+            if ((snapshot.flags[cell] & PROVOKE) != 0) {
+                snapshot.provokers |= Bitboard.bit(cell);
+            }
+            if (unit.isAvatar()) {
+                snapshot.avatarCell[owner] = cell;
+            }
+        }
+        snapshot.hash = snapshot.computeHash();
+        return snapshot;
+    }
+
+    private long computeHash() {
+        long result = Zobrist.mana(HUMAN, mana[HUMAN]) ^ Zobrist.mana(AI, mana[AI]);
+        if (side == AI) {
+            result ^= Zobrist.SIDE_AI;
+        }
+        long remaining = occupied;
+        while (remaining != 0) {
+            result ^= unitKey(Long.numberOfTrailingZeros(remaining));
+            remaining &= remaining - 1;
+        }
+        return result;
+    }
+
+    private long unitKey(int cell) {
+        // MOVED, ATTACKED and STUNNED sit one bit above Zobrist's flag bits
+        return Zobrist.unit(types[cell], ownerOf(cell), cell, health[cell], attack[cell], flags[cell] >> 1);
+    }
+
+    private void capturePlayer(int player, Player source) {
+        mana[player] = source.getMana();
+        artifact[player] = source.hasArtifact() ? source.getArtifactRobustness() : 0;
+        List<Card> hand = source.getHand();
+        handSize[player] = Math.min(hand.size(), MAX_HAND);
+        for (int i = 0; i < handSize[player]; i++) {
+            hands[player * MAX_HAND + i] = cards.indexOf(hand.get(i));
+        }
+    }
+
+    private static int unitFlags(Unit unit) {
+        int result = 0;
+        if (unit.isAvatar()) result |= AVATAR;
+        if (unit.hasMoved()) result |= MOVED;
+        if (unit.hasAttacked()) result |= ATTACKED;
+        if (unit.isStunned()) result |= STUNNED;
+        return result | abilityFlags(unit.getAbilities());
+    }
+
+    private static int abilityFlags(List<Ability> abilities) {
+        int result = 0;
+        for (Ability ability : abilities) {
+            if (ability instanceof Flying) result |= FLYING;
+            if (ability instanceof Provoke) result |= PROVOKE;
+            if (ability instanceof RushAbility) result |= RUSH;
+        }
+        return result;
+    }
+
+    public GameSnapshot copy() {
+        return new GameSnapshot(this);
+    }
+
+    /**
+     * Returns a new snapshot with the action played, this snapshot is not changed.
+     */
+    public GameSnapshot apply(int action) {
+        GameSnapshot next = new GameSnapshot(this);
+        next.play(action);
+        return next;
+    }
+
+    // Action encoding: type in bits 12+, first operand (cell or hand slot) in bits 6-11, target cell in bits 0-5
+
+    public static int move(int from, int to) {
+        return (MOVE << 12) | (from << 6) | to;
+    }
+
+    public static int attack(int from, int to) {
+        return (ATTACK << 12) | (from << 6) | to;
+    }
+
+    public static int summon(int handSlot, int to) {
+        return (SUMMON << 12) | (handSlot << 6) | to;
+    }
+
+    public static int actionType(int action) {
+        return action >>> 12;
+    }
+
+    public static int actionSource(int action) {
+        return (action >>> 6) & 63;
+    }
+
+    public static int actionTarget(int action) {
+        return action & 63;
+    }
+
+    /**
+     * Writes every legal action of the side to move into the buffer, END_TURN first.
+     *
+     * @return The number of actions written.
+     */
+    public int legalActions(int[] buffer) {
+        int count = 0;
+        buffer[count++] = END_TURN;
+        if (winner >= 0) {
+            return count;
+        }
+        long enemies = owners[1 - side];
+        long remaining = owners[side];
+        while (remaining != 0) {
+            int cell = Long.numberOfTrailingZeros(remaining);
+            remaining &= remaining - 1;
+            if ((flags[cell] & STUNNED) != 0) {
+                continue;
+            }
+            long targets = movementTargets(cell);
+            while (targets != 0) {
+                buffer[count++] = move(cell, Long.numberOfTrailingZeros(targets));
+                targets &= targets - 1;
+            }
+            targets = (flags[cell] & ATTACKED) != 0 ? 0 : attackTargets(cell, enemies);
+            while (targets != 0) {
+                buffer[count++] = attack(cell, Long.numberOfTrailingZeros(targets));
+                targets &= targets - 1;
+            }
+        }
+        long summonCells = Bitboard.neighbours(owners[side]) & ~occupied;
+        for (int slot = 0; slot < handSize[side] && summonCells != 0; slot++) {
+            int card = hands[side * MAX_HAND + slot];
+            if (cards.isCreature(card) && cards.cost(card) <= mana[side]) {
+                long targets = summonCells;
+                while (targets != 0) {
+                    buffer[count++] = summon(slot, Long.numberOfTrailingZeros(targets));
+                    targets &= targets - 1;
+                }
+            }
+        }
+        return count;
+    }
+
+    private long movementTargets(int cell) {
+        if ((flags[cell] & (MOVED | ATTACKED)) != 0 || isProvoked(cell)) {
+            return 0;
+        }
+        if ((flags[cell] & FLYING) != 0) {
+            return Bitboard.ALL & ~occupied;
+        }
+        return Bitboard.reachable(cell, occupied);
+    }
+
+    private long attackTargets(int cell, long enemies) {
+        long targets = Bitboard.ADJACENT[cell] & enemies;
+        long provoking = targets & provokers;
+        return provoking != 0 ? provoking : targets;
+    }
+
+    private boolean isProvoked(int cell) {
+        int owner = ownerOf(cell);
+        return (Bitboard.ADJACENT[cell] & owners[1 - owner] & provokers) != 0;
+    }
+
+    /**
+     * Plays a legal action on this snapshot. Use legalActions to get legal actions, the
+     * action is not validated again here.
+     */
+    public void play(int action) {
+        int from = actionSource(action);
+        int to = actionTarget(action);
+        switch (actionType(action)) {
+            case MOVE:
+                moveUnit(from, to);
+                setFlags(to, flags[to] | MOVED);
+                break;
+            case ATTACK:
+                resolveAttack(from, to);
+                break;
+            case SUMMON:
+                summonUnit(from, to);
+                break;
+            default:
+                endTurn();
+                break;
+        }
+    }
+
+    private void moveUnit(int from, int to) {
+        int owner = ownerOf(from);
+        int unitFlags = flags[from];
+        attack[to] = attack[from];
+        health[to] = health[from];
+        types[to] = types[from];
+        clearCell(from);
+        placeUnit(to, owner, unitFlags);
+        if ((unitFlags & AVATAR) != 0) {
+            avatarCell[owner] = to;
+        }
+    }
+
+    private void placeUnit(int cell, int owner, int unitFlags) {
+        long bit = Bitboard.bit(cell);
+        occupied |= bit;
+        owners[owner] |= bit;
+        flags[cell] = unitFlags;
+        if ((unitFlags & PROVOKE) != 0) {
+            provokers |= bit;
+        }
+        hash ^= unitKey(cell);
+    }
+
+    private void setFlags(int cell, int unitFlags) {
+        hash ^= unitKey(cell);
+        flags[cell] = unitFlags;
+        hash ^= unitKey(cell);
+    }
+
+    private void setMana(int player, int value) {
+        hash ^= Zobrist.mana(player, mana[player]) ^ Zobrist.mana(player, value);
+        mana[player] = value;
+    }
+
+    private void resolveAttack(int from, int to) {
+        setFlags(from, flags[from] | MOVED | ATTACKED);
+        damage(to, attack[from]);
+        if (health[to] <= 0) {
+            kill(to, ownerOf(from));
+        } else {
+            damage(from, attack[to]);
+            if (health[from] <= 0) {
+                kill(from, ownerOf(to));
+            }
+        }
+    }
+
+    private void damage(int cell, int amount) {
+        int owner = ownerOf(cell);
+        if ((flags[cell] & AVATAR) != 0 && artifact[owner] > 0) {
+            artifact[owner]--; // The artifact takes the hit instead of the avatar
+            return;
+        }
+        hash ^= unitKey(cell);
+        health[cell] = Math.max(0, health[cell] - amount);
+        hash ^= unitKey(cell);
+    }
+
+    private void kill(int cell, int killer) {
+        if ((flags[cell] & AVATAR) != 0) {
+            winner = killer;
+        }
+        clearCell(cell);
+    }
+
+    private void clearCell(int cell) {
+        hash ^= unitKey(cell);
+        long mask = ~Bitboard.bit(cell);
+        occupied &= mask;
+        owners[0] &= mask;
+        owners[1] &= mask;
+        provokers &= mask;
+        attack[cell] = 0;
+        health[cell] = 0;
+        flags[cell] = 0;
+        types[cell] = 0;
+    }
+
+    private void summonUnit(int slot, int to) {
+        int base = side * MAX_HAND;
+        int card = hands[base + slot];
+        System.arraycopy(hands, base + slot + 1, hands, base + slot, handSize[side] - slot - 1);
+        handSize[side]--;
+        setMana(side, mana[side] - cards.cost(card));
+
+        attack[to] = cards.attack(card);
+        health[to] = cards.health(card);
+        types[to] = cards.typeCode(card);
+        int abilities = cards.abilityFlags(card);
+        placeUnit(to, side, (abilities & RUSH) != 0 ? abilities : abilities | MOVED | ATTACKED);
+    }
+
+    // Mirrors EndTurnClicked and GameState.nextTurn
+    private void endTurn() {
+        int ending = side;
+        int starting = 1 - side;
+        setMana(ending, 0);
+        setMana(starting, Math.min(turn + 1, MAX_MANA));
+
+        long remaining = occupied;
+        while (remaining != 0) {
+            int cell = Long.numberOfTrailingZeros(remaining);
+            remaining &= remaining - 1;
+            int cleared = flags[cell] & ~(MOVED | ATTACKED);
+            if ((owners[ending] & Bitboard.bit(cell)) != 0) {
+                cleared &= ~STUNNED;
+            }
+            setFlags(cell, cleared);
+        }
+        side = starting;
+        hash ^= Zobrist.SIDE_AI;
+        if (side == AI) {
+            turn++;
+        }
+        drawCard(ending);
+    }
+
+    private void drawCard(int player) {
+        int[] deck = decks[player];
+        if (deckPosition[player] >= deck.length) {
+            return;
+        }
+        int card = deck[deckPosition[player]++];
+        if (handSize[player] < MAX_HAND) {
+            hands[player * MAX_HAND + handSize[player]++] = card;
+        }
+    }
+
+    private int ownerOf(int cell) {
+        return (owners[HUMAN] & Bitboard.bit(cell)) != 0 ? HUMAN : AI;
+    }
+
+    /**
+     * Returns the Zobrist hash of this position, equal to GameState.getPositionHash for the
+     * position it was captured from.
+     */
+    public long getHash() {
+        return hash;
+    }
+
+    public int getSideToMove() {
+        return side;
+    }
+
+    public int getTurn() {
+        return turn;
+    }
+
+    /**
+     * @return HUMAN or AI once an avatar has died, otherwise -1
+     */
+    public int getWinner() {
+        return winner;
+    }
+
+    public int getMana(int player) {
+        return mana[player];
+    }
+
+    public int getHealth(int player) {
+        return health[avatarCell[player]];
+    }
+
+    public int getHandSize(int player) {
+        return handSize[player];
+    }
+
+    public long getOccupiedMask() {
+        return occupied;
+    }
+
+    public long getOccupancyMask(int player) {
+        return owners[player];
+    }
+
+    public int getAttack(int cell) {
+        return attack[cell];
+    }
+
+    public int getUnitHealth(int cell) {
+        return health[cell];
+    }
+
+    public int getFlags(int cell) {
+        return flags[cell];
+    }
+
+    /**
+     * Card data looked up by the snapshots, one dense index per distinct card name.
+     * Built once per capture and shared, never changed afterwards.
+     */
+    private static final class CardTable {
+        private final Map<String, Integer> indexByName = new HashMap<>();
+        private int[] costs = new int[0];
+        private int[] attacks = new int[0];
+        private int[] healths = new int[0];
+        private int[] abilityFlags = new int[0];
+        private int[] typeCodes = new int[0];
+        private boolean[] creatures = new boolean[0];
+
+        int indexOf(Card card) {
+            Integer index = indexByName.get(card.getCardname());
+            if (index != null) {
+                return index;
+            }
+            int added = indexByName.size();
+            indexByName.put(card.getCardname(), added);
+            costs = Arrays.copyOf(costs, added + 1);
+            attacks = Arrays.copyOf(attacks, added + 1);
+            healths = Arrays.copyOf(healths, added + 1);
+            abilityFlags = Arrays.copyOf(abilityFlags, added + 1);
+            typeCodes = Arrays.copyOf(typeCodes, added + 1);
+            creatures = Arrays.copyOf(creatures, added + 1);
+            costs[added] = card.getManacost();
+            creatures[added] = card.isCreature();
+            typeCodes[added] = Zobrist.typeCode(card.getCardname());
+            if (card.isCreature() && card.getBigCard() != null) {
+                attacks[added] = card.getBigCard().getAttack();
+                healths[added] = card.getBigCard().getHealth();
+                abilityFlags[added] = GameSnapshot.abilityFlags(CardDefinitions.getAbilities(card));
+            }
+            return added;
+        }
+
+        int[] indicesOf(List<Card> deck) {
+            int[] indices = new int[deck.size()];
+            for (int i = 0; i < indices.length; i++) {
+                indices[i] = indexOf(deck.get(i));
+            }
+            return indices;
+        }
+
+        int cost(int card) {
+            return costs[card];
+        }
+
+        int attack(int card) {
+            return attacks[card];
+        }
+
+        int health(int card) {
+            return healths[card];
+        }
+
+        int abilityFlags(int card) {
+            return abilityFlags[card];
+        }
+
+        int typeCode(int card) {
+            return typeCodes[card];
+        }
+
+        boolean isCreature(int card) {
+            return creatures[card];
+        }
+    }
+}
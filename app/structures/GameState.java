@@ -2,13 +2,12 @@ package structures;
 
 import akka.actor.ActorRef;
 import com.fasterxml.jackson.annotation.JsonIgnore;
-import commands.BasicCommands;
+import commands.GameView;
 import structures.basic.*;
 import utils.BasicObjectBuilders;
 import utils.StaticConfFiles;
 
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
@@ -17,7 +16,7 @@ import java.util.concurrent.CopyOnWriteArrayList;
  *
  * @author Dr. Richard McCreadie
  */
-public class GameState {
+public class GameState implements ActionLog.Revertible {
     private int currentTurn;
     @JsonIgnore
     private HumanPlayer player1;
@@ -34,9 +33,35 @@ public class GameState {
     private Unit selectedUnit;
     private Card selectedCard;
     private int nextUnitId = 2;
+    @JsonIgnore
+    private GameView view; // Where the rules send everything the user should see
+    @JsonIgnore
+    private ActionLog actionLog; // Journal for make/unmake, null when not recording
+    @JsonIgnore
+    private final GameEventBus events = new GameEventBus();
+
+    // ActionLog entry kinds
+    private static final int LOG_TURN = 0;
+    private static final int LOG_INITIALIZED = 1;
+    private static final int LOG_NEXT_UNIT_ID = 2;
+    private static final int LOG_SOURCE_TILE = 3;
+    private static final int LOG_SELECTED_UNIT = 4;
+    private static final int LOG_SELECTED_CARD = 5;
+    private static final int LOG_PROVOKE_PUT = 6;
+    private static final int LOG_PROVOKE_REMOVE = 7;
+    private static final int LOG_SUBSCRIBED = 8;
 
 
+    /**
+     * Creates a game state that shows its changes through BasicCommands without an ActorRef,
+     * i.e. only via BasicCommands.altTell (as used by the tests).
+     */
     public GameState() {
+        this(GameView.forActor(null));
+    }
+
+    public GameState(GameView view) {
+        this.view = view;
         this.currentTurn = 1;
         this.isHumanTurn = true; //start with player's turn
         this.gameInitialized = false;
@@ -44,6 +69,76 @@ public class GameState {
         redHighlightedTiles = new CopyOnWriteArrayList<>();
         this.provokeEffects = new HashMap<>();
 
+        // The rules react to the board through the bus like any other listener
+        GameEventListener rules = this::onRulesEvent;
+        events.subscribe(GameEvent.UNIT_SUMMONED, rules);
+        events.subscribe(GameEvent.UNIT_MOVED, rules);
+        events.subscribe(GameEvent.UNIT_REMOVED, rules);
+        events.subscribe(GameEvent.UNIT_DIED, rules);
+        events.subscribe(GameEvent.AVATAR_HIT, rules);
+        events.subscribe(GameEvent.TURN_STARTED, rules);
+    }
+
+    private void onRulesEvent(GameState gameState, GameEvent event, Unit unit, Tile tile) {
+        switch (event) {
+            case UNIT_SUMMONED:
+                updateProvoke(unit, -1);
+                break;
+            case UNIT_MOVED:
+                updateProvoke(unit, Board.tileIndex(tile));
+                break;
+            case UNIT_REMOVED:
+                updateProvokeOnRemoval(unit, Board.tileIndex(tile));
+                break;
+            case UNIT_DIED:
+                fireTrigger(null, AbilityTrigger.ON_DEATH, Bitboard.ALL); // Deathwatch
+                break;
+            case AVATAR_HIT:
+                fireTrigger(null, AbilityTrigger.ON_HIT, board.getOccupancyMask(unit.getOwner())); // e.g. Zeal
+                break;
+            case TURN_STARTED:
+                fireTrigger(null, AbilityTrigger.ON_TURN_START, board.getOccupancyMask(getCurrentPlayer()));
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Returns the bus on which this game publishes its events. Batched listeners are
+     * delivered to by endAction.
+     */
+    public GameEventBus getEvents() {
+        return events;
+    }
+
+    /**
+     * Marks the end of an action (a click, a whole AI turn or a make call), delivering the
+     * events queued for batched listeners.
+     */
+    public void endAction() {
+        events.flush(this);
+    }
+
+    public void publish(GameEvent event, Unit unit, Tile tile) {
+        events.publish(this, event, unit, tile);
+    }
+
+    /**
+     * Subscribes a listener to one of this game's events for the rest of the game, e.g. for
+     * a spell whose effect lasts. Unlike getEvents().subscribe, this is undone by unmake.
+     */
+    public void subscribe(GameEvent event, GameEventListener listener) {
+        record(LOG_SUBSCRIBED, event, listener, 0);
+        events.subscribe(event, listener);
+    }
+
+    public GameView getView() {
+        return view;
+    }
+
+    public void setView(GameView view) {
+        this.view = view;
     }
 
     public boolean isGameInitialized() {
@@ -62,6 +157,191 @@ public class GameState {
         return currentTurn;
     }
 
+    public boolean isHumanTurn() {
+        return isHumanTurn;
+    }
+
+    /**
+     * Returns the Zobrist hash of the position: the units on the board, both players' mana and
+     * whose turn it is. Equal to the hash of a GameSnapshot captured now.
+     */
+    public long getPositionHash() {
+        long hash = board.getHash() ^ Zobrist.mana(0, player1.getMana()) ^ Zobrist.mana(1, player2.getMana());
+        return isHumanTurn ? hash : hash ^ Zobrist.SIDE_AI;
+    }
+
+    /**
+     * Captures a compact copy of the game for look-ahead, see GameSnapshot.
+     */
+    public GameSnapshot snapshot() {
+        return GameSnapshot.capture(this);
+    }
+
+    /**
+     * Attaches a new ActionLog to the game, board and players. From now on every change is
+     * journaled and can be reverted with unmake, see the make methods below. Search code should
+     * also set a headless view so that the moves it tries are not shown or paced.
+     */
+    public ActionLog startActionLog() {
+        setActionLog(new ActionLog());
+        return actionLog;
+    }
+
+    /**
+     * Detaches the ActionLog, keeping the current state.
+     */
+    public void stopActionLog() {
+        setActionLog(null);
+    }
+
+    private void setActionLog(ActionLog log) {
+        actionLog = log;
+        board.setActionLog(log);
+        player1.setActionLog(log);
+        player2.setActionLog(log);
+    }
+
+    public ActionLog getActionLog() {
+        return actionLog;
+    }
+
+    /**
+     * Moves a unit to an empty tile, triggering Provoke like a normal move.
+     *
+     * @return The mark to pass to unmake.
+     */
+    public int makeMove(Unit unit, Tile target) {
+        int mark = requireActionLog().mark();
+        board.placeUnitOnTile(this, unit, target, false);
+        endAction();
+        return mark;
+    }
+
+    /**
+     * Resolves an attack between two adjacent units, including counterattack, deaths,
+     * Deathwatch and on-hit effects.
+     *
+     * @return The mark to pass to unmake.
+     */
+    public int makeAttack(Unit attacker, Unit target) {
+        int mark = requireActionLog().mark();
+        resolveAttack(null, attacker, target);
+        endAction();
+        return mark;
+    }
+
+    /**
+     * Summons a creature card from the current player's hand onto a tile and pays its cost.
+     *
+     * @return The mark to pass to unmake.
+     */
+    public int makeSummon(Card card, Tile tile) {
+        int mark = requireActionLog().mark();
+        setSelectedCard(card);
+        card.summonCreature(null, this, tile);
+        payForCard(card);
+        setSelectedCard(null);
+        endAction();
+        return mark;
+    }
+
+    /**
+     * Casts a spell card from the current player's hand on a tile and pays its cost.
+     *
+     * @return The mark to pass to unmake.
+     */
+    public int makeSpell(Card card, Tile tile) {
+        int mark = requireActionLog().mark();
+        SpellEffect spellEffect = CardDefinitions.getSpellEffect(card);
+        if (spellEffect != null) {
+            setSelectedCard(card);
+            spellEffect.applyEffect(null, this, tile);
+            payForCard(card);
+            setSelectedCard(null);
+        }
+        endAction();
+        return mark;
+    }
+
+    /**
+     * Triggers an ability as if its unit on the given tile had activated it.
+     *
+     * @return The mark to pass to unmake.
+     */
+    public int makeAbility(Ability ability, Tile tile) {
+        int mark = requireActionLog().mark();
+        ability.triggerAbility(null, this, tile);
+        endAction();
+        return mark;
+    }
+
+    /**
+     * Reverts everything done since the mark returned by a make method.
+     */
+    public void unmake(int mark) {
+        requireActionLog().undoTo(mark);
+    }
+
+    private ActionLog requireActionLog() {
+        if (actionLog == null) {
+            throw new IllegalStateException("No ActionLog attached, call startActionLog first");
+        }
+        return actionLog;
+    }
+
+    private void payForCard(Card card) {
+        Player player = getCurrentPlayer();
+        player.removeFromHand(card);
+        player.setMana(player.getMana() - card.getManacost());
+    }
+
+    private void record(int kind, Object ref, Object ref2, int value) {
+        if (actionLog != null) {
+            actionLog.record(this, kind, ref, ref2, value);
+        }
+    }
+
+    private void recordTurn() {
+        record(LOG_TURN, null, null, (currentTurn << 1) | (isHumanTurn ? 1 : 0));
+    }
+
+    @Override
+    public void revert(int kind, Object ref, Object ref2, int value) {
+        switch (kind) {
+            case LOG_TURN:
+                currentTurn = value >> 1;
+                isHumanTurn = (value & 1) != 0;
+                break;
+            case LOG_INITIALIZED:
+                gameInitialized = value != 0;
+                break;
+            case LOG_NEXT_UNIT_ID:
+                nextUnitId = value;
+                break;
+            case LOG_SOURCE_TILE:
+                sourceTile = (Tile) ref;
+                break;
+            case LOG_SELECTED_UNIT:
+                selectedUnit = (Unit) ref;
+                break;
+            case LOG_SELECTED_CARD:
+                selectedCard = (Card) ref;
+                break;
+            case LOG_PROVOKE_PUT:
+                if (ref2 == null) {
+                    provokeEffects.remove(ref);
+                } else {
+                    provokeEffects.put((Unit) ref, (Unit) ref2);
+                }
+                break;
+            case LOG_PROVOKE_REMOVE:
+                provokeEffects.put((Unit) ref, (Unit) ref2);
+                break;
+            case LOG_SUBSCRIBED:
+                events.unsubscribe((GameEvent) ref, (GameEventListener) ref2);
+                break;
+        }
+    }
 
     public Player getCurrentPlayer() {
         return isHumanTurn ? player1 : player2;
@@ -71,7 +351,15 @@ public class GameState {
         return isHumanTurn ? player2 : player1;
     }
 
+    /**
+     * Returns the opponent of the given player, e.g. of a unit's owner.
+     */
+    public Player getOpponentOf(Player player) {
+        return player == player1 ? player2 : player1;
+    }
+
     public void setGameInitialized(boolean initialized) {
+        record(LOG_INITIALIZED, null, null, gameInitialized ? 1 : 0);
         this.gameInitialized = initialized;
     }
 
@@ -83,6 +371,16 @@ public class GameState {
         highlightedTiles.add(tile);
     }
 
+    /**
+     * Adds every tile of the mask to highlightedTiles in one step, so the
+     * copy-on-write list is only copied once.
+     */
+    public void addHighlightedTiles(long mask) {
+        if (mask != 0) {
+            highlightedTiles.addAll(board.tilesOf(mask));
+        }
+    }
+
     public List<Tile> getHighlightedTiles() {
         return highlightedTiles;
     }
@@ -96,6 +394,7 @@ public class GameState {
     }
 
     public void setSourceTile(Tile sourceTile) {
+        record(LOG_SOURCE_TILE, this.sourceTile, null, 0);
         this.sourceTile = sourceTile;
     }
 
@@ -104,6 +403,7 @@ public class GameState {
     }
 
     public void setSelectedUnit(Unit selectedUnit) {
+        record(LOG_SELECTED_UNIT, this.selectedUnit, null, 0);
         this.selectedUnit = selectedUnit;
     }
 
@@ -112,10 +412,12 @@ public class GameState {
     }
 
     public void setSelectedCard(Card selectedCard) {
+        record(LOG_SELECTED_CARD, this.selectedCard, null, 0);
         this.selectedCard = selectedCard;
     }
 
     public int getNextUnitId() {
+        record(LOG_NEXT_UNIT_ID, null, null, nextUnitId);
         return nextUnitId++;
     }
 
@@ -123,6 +425,12 @@ public class GameState {
         redHighlightedTiles.add(enemyTile);
     }
 
+    public void addRedHighlightedTiles(long mask) {
+        if (mask != 0) {
+            redHighlightedTiles.addAll(board.tilesOf(mask));
+        }
+    }
+
     public List<Tile> getRedHighlightedTiles() {
         return redHighlightedTiles;
     }
@@ -139,6 +447,8 @@ public class GameState {
         this.player2 = player2;
         this.player1.setAvatar(BasicObjectBuilders.loadUnit(StaticConfFiles.humanAvatar, getNextUnitId(), Unit.class));
         this.player2.setAvatar(BasicObjectBuilders.loadUnit(StaticConfFiles.aiAvatar, getNextUnitId(), Unit.class));
+        this.player1.getAvatar().setOwner(player1); // owners must be known before the avatars are placed on the board
+        this.player2.getAvatar().setOwner(player2);
     }
 
     /**
@@ -154,14 +464,14 @@ public class GameState {
         Unit player1Avatar = player1.getAvatar();
         Tile tile1 = board.getTile(1, 2);
         player1Avatar.setPositionByTile(tile1);
-        Board.getUnitMap().put(tile1, player1Avatar);
-        BasicCommands.drawUnit(out, player1Avatar, tile1);
+        board.putUnit(tile1, player1Avatar);
+        view.drawUnit(player1Avatar, tile1);
 
         Unit player2Avatar = player2.getAvatar();
         Tile tile2 = board.getTile(7, 2);
         player2Avatar.setPositionByTile(tile2);
-        Board.getUnitMap().put(tile2, player2Avatar);
-        BasicCommands.drawUnit(out, player2Avatar, tile1);
+        board.putUnit(tile2, player2Avatar);
+        view.drawUnit(player2Avatar, tile1);
     }
 
     /**
@@ -170,12 +480,13 @@ public class GameState {
      * Increments turn counter when switching from human to AI.
      */
     public void nextTurn() {
-        for (Map.Entry<Tile, Unit> entry : Board.getUnitMap().entrySet()) {
-            Unit unit = entry.getValue();
+        for (Unit unit : board.getUnits()) {
             if (unit.getOwner() == getCurrentPlayer() && unit.isStunned()) {
                 unit.setStunned(false);
             }
         }
+        publish(GameEvent.TURN_ENDED, null, null);
+        recordTurn();
         this.isHumanTurn = !this.isHumanTurn;
         if (!isHumanTurn) {
             this.currentTurn++;
@@ -184,10 +495,11 @@ public class GameState {
         setSourceTile(null);
         setSelectedCard(null);
         setSelectedUnit(null);
+        publish(GameEvent.TURN_STARTED, null, null);
     }
 
     public void resetHasMovedFlags() {
-        for (Unit unit : Board.getUnitMap().values()) {
+        for (Unit unit : board.getUnits()) {
             unit.setHasMoved(false);
             unit.setHasAttacked(false);
         }
@@ -195,12 +507,12 @@ public class GameState {
 
     public void clearAllHighlights(ActorRef out) {
         for (Tile tile : highlightedTiles) {
-            BasicCommands.drawTile(out, tile, 0); // Reset highlight (mode = 0)
+            view.drawTile(tile, 0); // Reset highlight (mode = 0)
         }
         highlightedTiles.clear(); // Clear the set of highlighted tiles
 
         for (Tile tile : redHighlightedTiles) {
-            BasicCommands.drawTile(out, tile, 0); // Reset highlight (mode = 0)
+            view.drawTile(tile, 0); // Reset highlight (mode = 0)
         }
         redHighlightedTiles.clear(); // Clear the set of highlighted tiles
     }
@@ -208,118 +520,95 @@ public class GameState {
 
     public List<Tile> getTilesOccupiedByCurrentPlayer() {
         List<Tile> occupiedTiles = new ArrayList<>();
-        for (Map.Entry<Tile, Unit> entry : Board.getUnitMap().entrySet()) {
-            if (entry.getValue().getOwner() == getCurrentPlayer()) {
-                occupiedTiles.add(entry.getKey());
-            }
-        }
+        board.collectTiles(board.getOccupancyMask(getCurrentPlayer()), occupiedTiles);
         return occupiedTiles;
     }
 
     public List<Tile> getTilesOccupiedByEnemyPlayer() {
         List<Tile> enemyTiles = new ArrayList<>();
-        for (Map.Entry<Tile, Unit> entry : Board.getUnitMap().entrySet()) {
-            Unit unit = entry.getValue();
-            // Check if the unit belongs to the enemy
-            if (unit.getOwner() == getOpponentPlayer()) {
-                enemyTiles.add(entry.getKey());
-            }
-        }
+        board.collectTiles(board.getOccupancyMask(getOpponentPlayer()), enemyTiles);
         return enemyTiles;
     }
 
     /**
      * Finds the valid movement tiles for a unit and adds to highlightedTiles list.
      * - Marks enemy units in red and valid movement spaces in blue.
+     * - Enemy units blocking a direction, or next to a reachable tile, are marked red.
      * - Handles flying units and diagonal movement restrictions.
      * - If a diagonal move is blocked because both required x and y-axis tiles are occupied, the tile will not be highlighted.
+     * Reachable tiles are computed on the board's bitboards (see Bitboard).
      *
      * @param tileX The x-coordinate of the unit's current position.
      * @param tileY The y-coordinate of the unit's current position.
      * @param out   The ActorRef used for sending commands to the front-end.
      */
     public synchronized void getValidMovementTiles(int tileX, int tileY, ActorRef out) {
-        Tile tile1 = board.getTile(tileX, tileY);
-        Unit unit = board.getUnitOnTile(tile1);
+        int origin = Board.tileIndex(tileX, tileY);
 
-        unit.getAbilities().stream().filter(ability -> ability instanceof Flying && out != null).forEach(ability -> ability.triggerAbility(out, this, tile1));
-
-        Tile lastTile = null;
-
-        int cardinalRange = 2;
-        int diagonalRange = 1;
-
-        // Define movement directions
-        int[][] validDirections = {{-1, 0}, {1, 0},  // Left, Right
-                {0, -1}, {0, 1},  // Up, Down
-                {-1, -1}, {-1, 1}, {1, -1}, {1, 1}  // Diagonal Moves
-        };
-
-        for (int[] direction : validDirections) {
-            boolean isDiagonal = (direction[0] != 0 && direction[1] != 0);
-            int range = isDiagonal ? diagonalRange : cardinalRange;
-
-            // **Check diagonal validity before proceeding**
-            if (isDiagonal) {
-                int requiredX = tileX + direction[0];  // Required x-direction (left/right)
-                int requiredY = tileY + direction[1];  // Required y-direction (up/down)
-
-                // Check bounds before accessing board.getTile()
-                if (requiredX < 0 || requiredX >= 9 || requiredY < 0 || requiredY >= 5) {
-                    continue;
-                }
+        addHighlightedTiles(getMovementMask(origin)); // Highlight valid movement tiles
+        addRedHighlightedTiles(getMoveAttackMask(origin)); // Highlight enemy units in red
 
-                // Both required cardinal directions must be open
-                boolean canMoveX = board.getUnitOnTile(board.getTile(tileX + direction[0], tileY)) == null;
-                boolean canMoveY = board.getUnitOnTile(board.getTile(tileX, tileY + direction[1])) == null;
-
-                if (!canMoveX && !canMoveY) {
-                    continue; // **Skip this diagonal direction**
-                }
-            }
-
-            for (int step = 1; step <= range; step++) {
-                int newX = tileX + direction[0] * step;
-                int newY = tileY + direction[1] * step;
-
-                if (newX >= 0 && newX < 9 && newY >= 0 && newY < 5) {
-                    Tile tile = board.getTile(newX, newY);
-                    Unit unitOnTile = board.getUnitOnTile(tile);
-
-                    if (unitOnTile != null) {
-                        if (unitOnTile.getOwner() == getOpponentPlayer()) {
-                            redHighlightedTiles.add(tile);  // Highlight enemy units in red
-                        }
-                        break; // **Stop further movement in this direction**
-                    } else {
-                        addHighlightedTile(tile); // Highlight valid movement tile
-                        lastTile = tile;
-                    }
-                }
-            }
-
-            // Check adjacent tiles of the last tile in this direction
-            if (lastTile != null && !redHighlightedTiles.contains(lastTile)) {
-                List<Tile> adjacentTiles = board.getAdjacentTiles(lastTile);
+        view.pause(200);
+    }
 
-                // Highlight adjacent tiles with enemy units
-                for (Tile tile : adjacentTiles) {
-                    Unit unitOnTile = board.getUnitOnTile(tile);
+    /**
+     * Computes where the unit on the given tile can move, without touching highlights or the UI.
+     * - Ground units use the 2 cardinal / 1 diagonal pattern (see Bitboard.reachable).
+     * - Units with Flying can move to any empty tile.
+     *
+     * @param origin The tile index of the unit (see Board.tileIndex).
+     * @return A bitmask of reachable tiles, 0 if the tile is empty.
+     */
+    public long getMovementMask(int origin) {
+        Unit unit = board.getUnitOnTile(origin);
+        if (unit == null) {
+            return 0;
+        }
+        long occupied = board.getOccupiedMask();
+        if (isFlying(unit)) {
+            return Bitboard.ALL & ~occupied;
+        }
+        return Bitboard.reachable(origin, occupied);
+    }
 
-                    if (unitOnTile != null && unitOnTile.getOwner() == getOpponentPlayer()) {
-                        //BasicCommands.drawTile(out, tile, 2); // Highlight mode = 2 (Red)
-                        redHighlightedTiles.add(tile); // Track highlighted tiles
+    /**
+     * Computes the enemy tiles the unit on the given tile could attack as part of a move:
+     * enemies next to it or to a tile getMovementMask lets it reach, plus, for ground units,
+     * enemies blocking its movement pattern. Enemies are the opponents of the unit's owner,
+     * whoever's turn it is.
+     *
+     * @param origin The tile index of the unit (see Board.tileIndex).
+     * @return A bitmask of enemy occupied tiles, 0 if the tile is empty.
+     */
+    public long getMoveAttackMask(int origin) {
+        Unit unit = board.getUnitOnTile(origin);
+        if (unit == null) {
+            return 0;
+        }
+        long reachable = getMovementMask(origin);
+        long inPlace = isFlying(unit) ? Bitboard.ADJACENT[origin] : Bitboard.blockers(origin, board.getOccupiedMask());
+        return (inPlace | Bitboard.neighbours(reachable)) & board.getOccupancyMask(getOpponentOf(unit.getOwner()));
+    }
 
-                    }
-                }
+    private static boolean isFlying(Unit unit) {
+        for (Ability ability : unit.getAbilities()) {
+            if (ability instanceof Flying) {
+                return true;
             }
         }
+        return false;
+    }
 
-        try {
-            Thread.sleep(200);
-        } catch (InterruptedException e) {
-            System.out.println("Error");
-        }
+    /**
+     * Writes the tile indices the unit on the given tile can move to into a caller-supplied buffer.
+     * Nothing is allocated and no game or UI state is changed, so the AI can call this freely.
+     *
+     * @param origin The tile index of the unit (see Board.tileIndex).
+     * @param buffer Destination for the tile indices, at least Board.SIZE long.
+     * @return The number of indices written.
+     */
+    public int getMovementTiles(int origin, int[] buffer) {
+        return Bitboard.toIndices(getMovementMask(origin), buffer);
     }
 
     /**
@@ -344,44 +633,127 @@ public class GameState {
             }
             clearAllHighlights(out); // Clear highlights after summoning
         } else { // Clicked on an invalid tile, reset selection
-            BasicCommands.addPlayer1Notification(out, "not a valid tile", 2);
+            view.addPlayer1Notification("not a valid tile", 2);
             clearAllHighlights(out);
             setSelectedCard(null);
         }
     }
 
-    private void triggerDeathwatchAbilities(ActorRef out) {
-        // Get the unit map from the board
-        ConcurrentHashMap<Tile, Unit> unitMap = new ConcurrentHashMap<>(Board.getUnitMap());
+    /**
+     * Fires the abilities subscribed to a trigger on the units in the given cells, in board order.
+     * Only the cells the board has registered for the trigger are visited. They are read once
+     * up front, as abilities may summon or remove units; a cell emptied meanwhile is skipped.
+     *
+     * @param out     The ActorRef passed on to the abilities.
+     * @param trigger The event that happened.
+     * @param cells   The cells whose units should react, e.g. Bitboard.ALL or one player's units.
+     */
+    public void fireTrigger(ActorRef out, AbilityTrigger trigger, long cells) {
+        long subscribed = board.getTriggerMask(trigger) & cells;
+        while (subscribed != 0) {
+            int index = Long.numberOfTrailingZeros(subscribed);
+            subscribed &= subscribed - 1;
+            Unit unit = board.getUnitOnTile(index);
+            if (unit == null) {
+                continue;
+            }
+
+            for (Ability ability : unit.getAbilities()) {
+                if (ability.getTrigger() == trigger) {
+                    ability.triggerAbility(out, this, board.getTile(index));
+                }
+            }
+        }
+    }
+
+    /**
+     * Brings Provoke up to date after a unit has been placed on the board, either summoned
+     * (from is -1) or moved from the cell with index from. Only the cells around the unit's
+     * old and new position can change, so nothing else on the board is looked at.
+     *
+     * @param unit The unit that was placed.
+     * @param from The index of the cell it came from, or -1 if it was not on the board.
+     */
+    public void updateProvoke(Unit unit, int from) {
+        int index = board.getTileIndexForUnit(unit);
+        if (from >= 0) {
+            if (provokeEffects.containsKey(unit)) {
+                release(unit); // Moved while provoked (only possible outside the normal rules)
+            }
+            if (Board.hasProvoke(unit)) {
+                releaseProvoked(unit, from, Bitboard.ADJACENT[index]);
+            }
+        }
 
-        // Iterate through all units on the board
-        for (Map.Entry<Tile, Unit> entry : unitMap.entrySet()) {
-            Unit unit = entry.getValue();
-            Tile tile = entry.getKey();
+        fireTrigger(null, AbilityTrigger.ON_MOVE, Bitboard.bit(index)); // Provoke only reports through the view
+        provokeIfAdjacent(unit, index);
+    }
 
-            // Check if the unit has the Deathwatch ability and triggers
-            unit.getAbilities().stream().filter(ability -> ability instanceof Deathwatch).forEach(ability -> ability.triggerAbility(out, this, tile));
+    /**
+     * Brings Provoke up to date after a unit has been taken off the board.
+     *
+     * @param unit The unit that was removed.
+     * @param from The index of the cell it was on.
+     */
+    public void updateProvokeOnRemoval(Unit unit, int from) {
+        removeProvokeEffect(unit);
+        if (Board.hasProvoke(unit)) {
+            releaseProvoked(unit, from, 0L);
         }
     }
 
-    public void triggerProvoke(ActorRef out) {
-        // Get the unit map from the board
-        ConcurrentHashMap<Tile, Unit> unitMap = new ConcurrentHashMap<>(Board.getUnitMap());
+    /**
+     * Puts an enemy unit under Provoke: it cannot move and can only attack units with Provoke.
+     * A unit already provoked keeps its provoker, but may also attack the new source.
+     *
+     * @param enemyUnit  The unit to provoke.
+     * @param sourceUnit The adjacent Provoke unit.
+     */
+    public void provoke(Unit enemyUnit, Unit sourceUnit) {
+        Unit provoker = provokeEffects.get(enemyUnit);
+        if (provoker == null) {
+            view.addPlayer1Notification("Provoke Active", 3);
+            enemyUnit.setCanMove(false);
+            enemyUnit.setValidAttackTargets(board.getProvokeUnits());
+            addProvokeEffect(enemyUnit, sourceUnit);
+        } else if (!enemyUnit.canAttack(sourceUnit)) {
+            enemyUnit.setValidAttackTargets(board.getProvokeUnits());
+        }
+    }
 
-        // Iterate through all units on the board
-        for (Map.Entry<Tile, Unit> entry : unitMap.entrySet()) {
-            Unit unit = entry.getValue();
-            Tile tile = entry.getKey();
+    // Provokes a unit that stands next to an enemy Provoke unit, if it is not provoked already
+    private void provokeIfAdjacent(Unit unit, int index) {
+        if (provokeEffects.containsKey(unit)) {
+            return;
+        }
+        long provokers = Bitboard.ADJACENT[index] & board.getProvokeMask() & ~board.getOccupancyMask(unit.getOwner());
+        if (provokers != 0) {
+            provoke(unit, board.getUnitOnTile(Long.numberOfTrailingZeros(provokers)));
+        }
+    }
 
-            // Check if the unit has the Provoke Ability
-            for (Ability ability : unit.getAbilities()) {
-                if (ability instanceof Provoke) {
-                    ability.triggerAbility(out, this, tile);
-                }
+    // Frees the units around the source's old cell that it provoked, apart from those in keep.
+    // A provoked unit always stands next to its provoker, so no other cell needs checking.
+    private void releaseProvoked(Unit sourceUnit, int from, long keep) {
+        long around = Bitboard.ADJACENT[from] & board.getOccupiedMask() & ~keep;
+        while (around != 0) {
+            int index = Long.numberOfTrailingZeros(around);
+            around &= around - 1;
+            Unit affectedUnit = board.getUnitOnTile(index);
+            if (provokeEffects.get(affectedUnit) == sourceUnit) {
+                view.addPlayer1Notification("Provoke disabled", 3);
+                release(affectedUnit);
+                provokeIfAdjacent(affectedUnit, index); // Another Provoke unit may still hold it
             }
         }
     }
 
+    private void release(Unit affectedUnit) {
+        affectedUnit.setCanMove(true); // Allow movement
+        affectedUnit.setValidAttackTargets(null); // Reset attack targets
+        removeProvokeEffect(affectedUnit);
+    }
+
     /**
      * Checks if a unit is already affected by any Provoke ability.
      *
@@ -392,40 +764,28 @@ public class GameState {
         return provokeEffects.containsKey(unit);
     }
 
-    public void addProvokeEffect(Unit enemyUnit, Unit sourceUnit) {
-        provokeEffects.put(enemyUnit, sourceUnit);
+    /**
+     * Returns the Provoke unit holding the given unit, or null if it is not provoked.
+     */
+    public Unit getProvoker(Unit unit) {
+        return provokeEffects.get(unit);
     }
 
-    public void removeProvokeEffect(Unit sourceUnit, ActorRef out) {
-        // Iterate through the map to find all units affected by the sourceUnit
-        provokeEffects.entrySet().removeIf(entry -> {
-            Unit affectedUnit = entry.getKey();
-            Unit provokeUnit = entry.getValue();
+    public void addProvokeEffect(Unit enemyUnit, Unit sourceUnit) {
+        Unit previous = provokeEffects.put(enemyUnit, sourceUnit);
+        record(LOG_PROVOKE_PUT, enemyUnit, previous, 0);
+    }
 
-            // If the sourceUnit is the Provoke unit, reset the affected unit's state
-            if (provokeUnit.equals(sourceUnit)) {
-                BasicCommands.addPlayer1Notification(out, "Provoke disabled", 3);
-                affectedUnit.setCanMove(true); // Allow movement
-                affectedUnit.setValidAttackTargets(null); // Reset attack targets
-                return true; // Remove this entry from the map
-            }
-            return false; // Keep the entry in the map
-        });
+    private void removeProvokeEffect(Unit affectedUnit) {
+        Unit provokeUnit = provokeEffects.remove(affectedUnit);
+        if (provokeUnit != null) {
+            record(LOG_PROVOKE_REMOVE, affectedUnit, provokeUnit, 0);
+        }
     }
 
 
     public void triggerOpeningGambit(ActorRef out) {
-        // Get the unit map from the board
-        ConcurrentHashMap<Tile, Unit> unitMap = new ConcurrentHashMap<>(Board.getUnitMap());
-
-        // Iterate through all units on the board
-        for (Map.Entry<Tile, Unit> entry : unitMap.entrySet()) {
-            Unit unit = entry.getValue();
-            Tile tile = entry.getKey();
-
-            // Check if the unit has the OpeningGambit ability
-            unit.getAbilities().stream().filter(ability -> ability instanceof OpeningGambit).forEach(ability -> ability.triggerAbility(out, this, tile));
-        }
+        fireTrigger(out, AbilityTrigger.ON_SUMMON, Bitboard.ALL);
     }
 
     /**
@@ -437,7 +797,7 @@ public class GameState {
      */
     public void handleSpellCardClick(ActorRef out, Tile clickedTile) {
         if (selectedCard != null && !selectedCard.isCreature()) {
-            SpellEffect spellEffect = SpellEffectMap.getSpellEffectForCard(selectedCard.getCardname());
+            SpellEffect spellEffect = CardDefinitions.getSpellEffect(selectedCard);
             if (spellEffect != null && (redHighlightedTiles.contains(clickedTile) || highlightedTiles.contains(clickedTile))) {
                 spellEffect.applyEffect(out, this, clickedTile);
 
@@ -458,18 +818,19 @@ public class GameState {
      * @param unitTile The tile where the attacking unit is positioned.
      */
     public synchronized void getValidAttackTiles(Tile unitTile) {
-        List<Tile> adjacentTiles = getBoard().getAdjacentTiles(unitTile);
-        Unit unit = getBoard().getUnitOnTile(unitTile);
-
-        // Highlight adjacent tiles with enemy units
-        for (Tile tile : adjacentTiles) {
-            Unit unitOnTile = getBoard().getUnitOnTile(tile);
-
-            if (unitOnTile != null && unitOnTile.getOwner() == getOpponentPlayer() && unit.canAttack(unitOnTile)) {
-                redHighlightedTiles.add(tile);// Track highlighted tiles
-
+        Unit unit = board.getUnitOnTile(unitTile);
+        long candidates = Bitboard.ADJACENT[Board.tileIndex(unitTile)] & board.getOccupancyMask(getOpponentPlayer());
+
+        // Drop adjacent enemies this unit is not allowed to attack (e.g. while provoked)
+        long targets = candidates;
+        while (candidates != 0) {
+            int index = Long.numberOfTrailingZeros(candidates);
+            candidates &= candidates - 1;
+            if (!unit.canAttack(board.getUnitOnTile(index))) {
+                targets &= ~Bitboard.bit(index);
             }
         }
+        addRedHighlightedTiles(targets); // Track highlighted tiles
     }
 
     private Tile findPotentialAdjacentTile(Tile targetTile) {
@@ -510,27 +871,28 @@ public class GameState {
             boolean movementSuccessful = moveAttackerToAdjacentTile(out, attacker, targetTile);
             if (!movementSuccessful) {
                 clearAllHighlights(out);
-                BasicCommands.addPlayer1Notification(out, "movement to adjacent tile not possible", 3);
+                view.addPlayer1Notification("movement to adjacent tile not possible", 3);
                 return; // Exit the method if movement fails
             }
         }
 
+        resolveAttack(out, attacker, target);
+        clearAllHighlights(out);
+    }
+
+    private void resolveAttack(ActorRef out, Unit attacker, Unit target) {
         // Perform the attack
-        BasicCommands.playUnitAnimation(out, attacker, UnitAnimationType.attack);
-        try {
-            Thread.sleep(1000); // Delay for animation
-        } catch (InterruptedException e) {
-            System.out.println("Error during attack animation delay");
-        }
-        BasicCommands.playUnitAnimation(out, attacker, UnitAnimationType.idle);
-        target.takeDamage(attacker.getAttackPower(), out);
+        view.playUnitAnimation(attacker, UnitAnimationType.attack);
+        view.pause(1000); // Delay for animation
+        view.playUnitAnimation(attacker, UnitAnimationType.idle);
+        target.takeDamage(attacker.getAttackPower(), view);
+        publish(GameEvent.UNIT_DAMAGED, target, board.getTileForUnit(target));
 
         // Handle the states after attack
         handleUnitStates(out, attacker, target);
 
         // Mark the attacker as having attacked
         attacker.setHasAttacked(true);
-        clearAllHighlights(out);
     }
 
     private boolean moveAttackerToAdjacentTile(ActorRef out, Unit attacker, Tile targetTile) {
@@ -543,11 +905,7 @@ public class GameState {
             }
 
             // Simulate movement delay
-            try {
-                Thread.sleep(2500); // Delay for animation
-            } catch (InterruptedException e) {
-                System.out.println("Error during movement delay");
-            }
+            view.pause(2500); // Delay for animation
 
             return true; // Movement was successful
         } else {
@@ -569,7 +927,7 @@ public class GameState {
             }
         } else {
             handleCounterattack(out, attacker, target);
-            BasicCommands.setUnitHealth(out, target, target.getCurrentHealth());
+            view.setUnitHealth(target, target.getCurrentHealth());
         }
 
         if (target != null && target.isAvatar()) {
@@ -578,15 +936,11 @@ public class GameState {
     }
 
     private void handleCounterattack(ActorRef out, Unit attacker, Unit target) {
-        BasicCommands.playUnitAnimation(out, target, UnitAnimationType.attack);
-        try {
-            Thread.sleep(1000);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new RuntimeException("Thread interrupted during sleep", e);
-        }
-        target.counterDamage(attacker, out);
-        BasicCommands.playUnitAnimation(out, target, UnitAnimationType.idle);
+        view.playUnitAnimation(target, UnitAnimationType.attack);
+        view.pause(1000);
+        target.counterDamage(attacker, view);
+        publish(GameEvent.UNIT_DAMAGED, attacker, board.getTileForUnit(attacker));
+        view.playUnitAnimation(target, UnitAnimationType.idle);
 
         if (attacker.getCurrentHealth() <= 0) {
             handleUnitDeath(out, attacker);
@@ -596,7 +950,7 @@ public class GameState {
                 endGame(winner, out);
             }
         } else {
-            BasicCommands.setUnitHealth(out, attacker, attacker.getCurrentHealth());
+            view.setUnitHealth(attacker, attacker.getCurrentHealth());
             if (attacker.isAvatar()) {
                 handleAvatarHit(out, attacker);
             }
@@ -604,12 +958,9 @@ public class GameState {
     }
 
     private void handleUnitDeath(ActorRef out, Unit unit) {
-        if (unit.getAbilities().stream().anyMatch(ability -> ability instanceof Provoke)) {
-            removeProvokeEffect(unit, out);
-        }
         Tile unitTile = getBoard().getTileForUnit(unit);
-        getBoard().removeUnitFromTile(unitTile, out);
-        triggerDeathwatchAbilities(out);
+        getBoard().removeUnitFromTile(this, unitTile);
+        publish(GameEvent.UNIT_DIED, unit, unitTile);
     }
 
     /**
@@ -622,19 +973,21 @@ public class GameState {
      * @param avatar The avatar unit that was hit.
      */
     private void handleAvatarHit(ActorRef out, Unit avatar) {
-        avatar.triggerOnHitEffect(out, this); // Trigger on-hit effects
-
-        // Update player health
         Player owner = avatar.getOwner();
-        if (owner == getCurrentPlayer()) {
-            avatar.getAbilities().forEach(ability -> ability.triggerAbility(out, this, getBoard().getTileForUnit(avatar)));
+        if (avatar.getCurrentHealth() > 0) { // A dead avatar is already off the board
+            publish(GameEvent.AVATAR_HIT, avatar, board.getTileForUnit(avatar)); // Trigger on-hit effects
+            if (owner == getCurrentPlayer()) {
+                avatar.getAbilities().forEach(ability -> ability.triggerAbility(out, this, getBoard().getTileForUnit(avatar)));
+            }
         }
+
+        // Update player health
         owner.setHealth(avatar.getCurrentHealth());
 
         if (owner == player1) {
-            BasicCommands.setPlayer1Health(out, owner);
+            view.setPlayer1Health(owner);
         } else if (owner == player2) {
-            BasicCommands.setPlayer2Health(out, owner);
+            view.setPlayer2Health(owner);
         }
     }
 
@@ -743,7 +1096,7 @@ public class GameState {
      */
     private boolean notifyBlocked(ActorRef out, String message) {
         System.out.println("Cannot move: " + message);
-        BasicCommands.addPlayer1Notification(out, "Cannot move: " + message, 2);
+        view.addPlayer1Notification("Cannot move: " + message, 2);
         return false;
     }
 
@@ -810,36 +1163,11 @@ public class GameState {
         // Clear all previously highlighted tiles
         clearAllHighlights(out);
 
-        // Get all tiles occupied by the current player
-        List<Tile> occupiedTiles = getTilesOccupiedByCurrentPlayer();
-
-        // Define all 8 possible adjacent directions
-        int[][] directions = {{-1, -1}, {-1, 0}, {-1, 1}, // Top-left, Top, Top-right
-                {0, -1}, {0, 1},  // Left,       Right
-                {1, -1}, {1, 0}, {1, 1}   // Bottom-left, Bottom, Bottom-right
-        };
-
-        // Iterate through all occupied tiles
-        for (Tile occupiedTile : occupiedTiles) {
-            int tilex = occupiedTile.getTilex();
-            int tiley = occupiedTile.getTiley();
-
-            // Iterate through all directions
-            for (int[] dir : directions) {
-                int newX = tilex + dir[0];
-                int newY = tiley + dir[1];
-
-                // Check if the new coordinates are within the board bounds
-                if (newX >= 0 && newX < 9 && newY >= 0 && newY < 5) {
-                    Tile tile = getBoard().getTile(newX, newY);
-
-                    // Check if the tile is empty (no unit on it)
-                    if (getBoard().getUnitOnTile(tile) == null) {
-                        addHighlightedTile(tile); // Track highlighted tiles
-                    }
-                }
-            }
-        }
+        // Empty tiles touching any tile occupied by the current player
+        long friendly = board.getOccupancyMask(getCurrentPlayer());
+        long summonable = Bitboard.neighbours(friendly) & ~board.getOccupiedMask();
+
+        addHighlightedTiles(summonable); // Track highlighted tiles
     }
 
     /**
@@ -852,11 +1180,12 @@ public class GameState {
      */
     public void endGame(Player winner, ActorRef out) {
         // Notify the players that the game has ended
-        BasicCommands.addPlayer1Notification(out, winner == player1 ? "Player 1 Wins!" : "Player 2 Wins!", 20);
+        view.addPlayer1Notification(winner == player1 ? "Player 1 Wins!" : "Player 2 Wins!", 20);
 
         // Disable further moves or actions
+        recordTurn();
         this.isHumanTurn = false; // Stop the game loop
-        this.gameInitialized = false; // Mark the game as ended
+        setGameInitialized(false); // Mark the game as ended
 
         // Clear all highlights and selections
         clearAllHighlights(out);
@@ -868,20 +1197,19 @@ public class GameState {
         clearPlayerHand(player2, out);
 
         // disable movement of units
-        for (Map.Entry<Tile, Unit> entry : Board.getUnitMap().entrySet()) {
-            Unit unit = entry.getValue();
+        for (Unit unit : board.getUnits()) {
             unit.setCanMove(false); // Disable movement
             unit.setHasAttacked(true);  //mark as attacked so it cannot attack (disabling it in a way)
 
         }
         player2.setMana(0);
-        BasicCommands.setPlayer2Mana(out, player2);
+        view.setPlayer2Mana(player2);
         player1.setMana(0);
-        BasicCommands.setPlayer1Mana(out, player1);
+        view.setPlayer1Mana(player1);
         player1.setHealth(0);
         player2.setHealth(0);
-        BasicCommands.setPlayer1Health(out, player1);
-        BasicCommands.setPlayer2Health(out, player2);
+        view.setPlayer1Health(player1);
+        view.setPlayer2Health(player2);
     }
 
     // clear a player's hand
@@ -891,16 +1219,12 @@ public class GameState {
             return;
         }
         for (int i = 0; i < hand.size(); i++) {
-            BasicCommands.deleteCard(out, i + 1); //delete card from position
-            try {
-                Thread.sleep(100);
-            } catch (InterruptedException e) {
-                throw new RuntimeException(e);
-            }
+            view.deleteCard(i + 1); //delete card from position
+            view.pause(100);
         }
 
         // Clear the hand list
-        hand.clear();
+        player.clearHand();
     }
 
 
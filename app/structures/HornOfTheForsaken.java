@@ -1,7 +1,6 @@
 package structures;
 
 import akka.actor.ActorRef;
-import commands.BasicCommands;
 import structures.basic.Player;
 import structures.basic.Tile;
 import structures.basic.Unit;
@@ -18,7 +17,17 @@ import java.util.Random;
 * three times. Human avatar's health does not change till the time artifact is present. A wraithling
 * is summoned whenever the avatar is attacked. */
 
-public class HornOfTheForsaken implements SpellEffect, OnHitEventListener {
+public class HornOfTheForsaken implements SpellEffect {
+
+    private final int robustness;
+
+    public HornOfTheForsaken() {
+        this(3);
+    }
+
+    public HornOfTheForsaken(int robustness) {
+        this.robustness = robustness;
+    }
 
     @Override
     public void highlightValidTargets(ActorRef out, GameState gameState, Tile tile) {
@@ -31,34 +40,31 @@ public class HornOfTheForsaken implements SpellEffect, OnHitEventListener {
 
         // Highlight the avatar's tile
         if (avatarTile != null) {
-            //BasicCommands.drawTile(out, avatarTile, 1); // Highlight mode = 1 (Blue)
+            //gameState.getView().drawTile(avatarTile, 1); // Highlight mode = 1 (Blue)
             gameState.addHighlightedTile(avatarTile); // Track highlighted tiles
         }
     }
 
     @Override
     public void applyEffect(ActorRef out, GameState gameState, Tile targetTile) {
-    	// Get the unit on the targetTile to applyEffect to
-        Unit unit = gameState.getBoard().getUnitOnTile(targetTile);
-
         // Equip the artifact to the player's avatar
-        Player currentPlayer = gameState.getCurrentPlayer();
-        currentPlayer.equipArtifact(3); // Initialize with 3 robustness
+        Player owner = gameState.getCurrentPlayer();
+        owner.equipArtifact(robustness); // Initialize with 3 robustness by default
 
         // Update the UI to indicate the artifact is equipped
-        BasicCommands.addPlayer1Notification(out, "Horn of the Forsaken equipped!", 3);
-
-     // Add the "On Hit" effect to the player's avatar
-        unit.addOnHitEventListener(this);
+        gameState.getView().addPlayer1Notification("Horn of the Forsaken equipped!", 3);
+
+        // Add the "On Hit" effect to the player's avatar. The effect is shared by every game,
+        // so what it needs to remember goes into the listener
+        Unit avatar = owner.getAvatar();
+        gameState.subscribe(GameEvent.AVATAR_HIT, (state, event, unit, tile) -> {
+            if (unit == avatar) {
+                summonWraithling(state, owner, tile);
+            }
+        });
     }
 
-    @Override
-    public void onHit(ActorRef out, GameState gameState) {
-        // Summon Wraithling on adjacent tiles
-        // Get the player's avatar
-        Unit avatar = gameState.getPlayer1().getAvatar();
-        Tile avatarTile = gameState.getBoard().getTileForUnit(avatar);
-
+    private void summonWraithling(GameState gameState, Player owner, Tile avatarTile) {
         // Get adjacent tiles
         List<Tile> adjacentTiles = gameState.getBoard().getAdjacentTiles(avatarTile);
 
@@ -77,7 +83,7 @@ public class HornOfTheForsaken implements SpellEffect, OnHitEventListener {
 
             // Summon a Wraithling
             Unit wraithling = BasicObjectBuilders.loadUnit(StaticConfFiles.wraithling, gameState.getNextUnitId(), Unit.class);
-            wraithling.setOwner(gameState.getPlayer1());
+            wraithling.setOwner(owner);
             wraithling.setCurrentHealth(1); // Wraithlings have 1 health
             wraithling.setAttackPower(1);   // Wraithlings have 1 attack
 
@@ -85,17 +91,12 @@ public class HornOfTheForsaken implements SpellEffect, OnHitEventListener {
             gameState.getBoard().placeUnitOnTile(gameState, wraithling, randomTile, false);
 
             // Update the UI
-            BasicCommands.setUnitHealth(out, wraithling, wraithling.getCurrentHealth());
-            BasicCommands.setUnitAttack(out, wraithling, wraithling.getAttackPower());
-            BasicCommands.playUnitAnimation(out, wraithling, UnitAnimationType.idle);
+            gameState.getView().setUnitHealth(wraithling, wraithling.getCurrentHealth());
+            gameState.getView().setUnitAttack(wraithling, wraithling.getAttackPower());
+            gameState.getView().playUnitAnimation(wraithling, UnitAnimationType.idle);
 
             // Add a small delay for visual effect
-            try {
-                Thread.sleep(500); // 500ms delay
-            } catch (InterruptedException e) {
-                e.printStackTrace();
-            }
-        }
+            gameState.getView().pause(500); // 500ms delay
         }
     }
-
+}
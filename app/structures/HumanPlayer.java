@@ -1,7 +1,6 @@
 package structures;
 
 import akka.actor.ActorRef;
-import commands.BasicCommands;
 import structures.basic.Card;
 import structures.basic.Player;
 import utils.OrderedCardLoader;
@@ -25,11 +24,18 @@ public class HumanPlayer extends Player {
      *
      * @param gameState The current game state.
      */
+    /**
+     * Returns the cards left in the deck, top first.
+     */
+    public List<Card> getDeck() {
+        return Collections.unmodifiableList(deck);
+    }
+
     public void drawInitialHand(GameState gameState) {
         for (int i = 0; i < 3; i++) {
             drawCard(gameState);
         }
-        super.displayHand(out); 
+        super.displayHand(gameState.getView()); 
     }
 
     /**
@@ -50,23 +56,23 @@ public class HumanPlayer extends Player {
                 System.out.println("Index" + removedIndex);
 
                 // Remove the card from the UI
-                BasicCommands.deleteCard(out, removedIndex + 1);
+                gameState.getView().deleteCard(removedIndex + 1);
 
                 // Shift remaining cards left in the UI
                 for (int i = removedIndex + 1; i < getHand().size(); i++) {
                     Card shiftedCard = getHand().get(i);
-                    BasicCommands.deleteCard(out, i + 1); // Clear old position
-                    BasicCommands.drawCard(out, shiftedCard, i, 0); // Draw at new position
+                    gameState.getView().deleteCard(i + 1); // Clear old position
+                    gameState.getView().drawCard(shiftedCard, i, 0); // Draw at new position
                 }
                 // Remove the card from the hand
-                getHand().remove(card);
+                removeFromHand(card);
 
                 // Ensure the last UI slot is cleared after shifting
-                BasicCommands.deleteCard(out, getHand().size() + 1);
+                gameState.getView().deleteCard(getHand().size() + 1);
 
                 // Deduct mana
                 setMana(getMana() - card.getManacost());
-                BasicCommands.setPlayer1Mana(out, this);
+                gameState.getView().setPlayer1Mana(this);
             }
         }
     }
@@ -83,17 +89,17 @@ public class HumanPlayer extends Player {
     public void drawCard(GameState gameState) {
         if (getHand().size() < 6) {
             if (!deck.isEmpty()) {
-                Card newCard = deck.remove(0);
-                getHand().add(newCard);
+                Card newCard = drawFromDeck(deck);
+                addToHand(newCard);
 
                 int nextIndex = getHand().size(); // Correct UI index
-                BasicCommands.drawCard(out, newCard, nextIndex, 0);
+                gameState.getView().drawCard(newCard, nextIndex, 0);
             }
         } else if (!deck.isEmpty()) {
-            deck.remove(0); //card is lost even if no space in hand
+            drawFromDeck(deck); //card is lost even if no space in hand
         }
         if (deck.isEmpty() && getHand().isEmpty()) { //if deck is empty and hand is empty too, game over
-            BasicCommands.addPlayer1Notification(out, "Deck finished", 2);
+            gameState.getView().addPlayer1Notification("Deck finished", 2);
             Player winner = gameState.getPlayer2();
             gameState.endGame(winner, out);
         }
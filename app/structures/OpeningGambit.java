@@ -1,7 +1,6 @@
 package structures;
 
 import akka.actor.ActorRef;
-import commands.BasicCommands;
 import structures.basic.Tile;
 import structures.basic.Unit;
 import structures.basic.UnitAnimationType;
@@ -20,6 +19,12 @@ import java.util.List;
  */
 
 public class OpeningGambit implements Ability {
+
+    @Override
+    public AbilityTrigger getTrigger() {
+        return AbilityTrigger.ON_SUMMON;
+    }
+
     @Override
     public void triggerAbility(ActorRef out, GameState gameState, Tile sourceTile) {
         Unit sourceUnit = gameState.getBoard().getUnitOnTile(sourceTile);
@@ -39,7 +44,7 @@ public class OpeningGambit implements Ability {
     }
 
     private void triggerSilverguardAbility(ActorRef out, GameState gameState, Tile sourceTile) {
-        BasicCommands.addPlayer1Notification(out, "Opening Gambit triggered!", 2);
+        gameState.getView().addPlayer1Notification("Opening Gambit triggered!", 2);
 
         Unit SilverguardSquire = gameState.getBoard().getUnitOnTile(sourceTile);
         if (SilverguardSquire == null) {
@@ -83,16 +88,12 @@ public class OpeningGambit implements Ability {
                     adjacentUnit.setMaximumHealth(adjacentUnit.getMaxHealth() + 1);
 
                     // Update the unit's stats in the UI
-                    BasicCommands.setUnitAttack(out, adjacentUnit, newAttack);
-                    BasicCommands.setUnitHealth(out, adjacentUnit, newHealth);
-                    BasicCommands.playUnitAnimation(out, adjacentUnit, UnitAnimationType.idle);
+                    gameState.getView().setUnitAttack(adjacentUnit, newAttack);
+                    gameState.getView().setUnitHealth(adjacentUnit, newHealth);
+                    gameState.getView().playUnitAnimation(adjacentUnit, UnitAnimationType.idle);
 
                     // Add a small delay for UI updates
-                    try {
-                        Thread.sleep(200); // 200ms delay
-                    } catch (InterruptedException e) {
-                        System.out.println("Error during UI update delay");
-                    }
+                    gameState.getView().pause(200); // 200ms delay
                 }
             }
         }
@@ -106,7 +107,7 @@ public class OpeningGambit implements Ability {
         // Check if the tile is empty
         if (behindTile != null && gameState.getBoard().getUnitOnTile(behindTile) == null) {
             // Summon a Wraithling on the behindTile
-            BasicCommands.addPlayer1Notification(out, "Opening Gambit Triggered", 3);
+            gameState.getView().addPlayer1Notification("Opening Gambit Triggered", 3);
             Unit wraithling = BasicObjectBuilders.loadUnit(StaticConfFiles.wraithling, gameState.getNextUnitId(), Unit.class);
             wraithling.setOwner(sourceUnit.getOwner());
             wraithling.setCurrentHealth(1); // Wraithlings have 1 health
@@ -114,16 +115,12 @@ public class OpeningGambit implements Ability {
             gameState.getBoard().placeUnitOnTile(gameState,wraithling, behindTile, false);
 
             // Add a small delay for place Unit to complete
-            try {
-                Thread.sleep(200); // 200ms delay
-            } catch (InterruptedException e) {
-                e.printStackTrace();
-            }
+            gameState.getView().pause(200); // 200ms delay
 
             // Update the UI
-            BasicCommands.setUnitHealth(out, wraithling, wraithling.getCurrentHealth());
-            BasicCommands.setUnitAttack(out, wraithling, wraithling.getAttackPower());
-            BasicCommands.playUnitAnimation(out, wraithling, UnitAnimationType.idle);
+            gameState.getView().setUnitHealth(wraithling, wraithling.getCurrentHealth());
+            gameState.getView().setUnitAttack(wraithling, wraithling.getAttackPower());
+            gameState.getView().playUnitAnimation(wraithling, UnitAnimationType.idle);
         }
     }
 
@@ -136,8 +133,8 @@ public class OpeningGambit implements Ability {
             Unit enemyUnit = gameState.getBoard().getUnitOnTile(adjacentTile);
             if (enemyUnit != null && enemyUnit.getOwner() == gameState.getOpponentPlayer() && enemyUnit.getCurrentHealth() < enemyUnit.getMaxHealth()) {
                 // Destroy the enemy unit
-                BasicCommands.addPlayer1Notification(out, "Opening Gambit Triggered", 3);
-                gameState.getBoard().removeUnitFromTile(adjacentTile, out);
+                gameState.getView().addPlayer1Notification("Opening Gambit Triggered", 3);
+                gameState.getBoard().removeUnitFromTile(gameState, adjacentTile);
                 break; // Only destroy one unit
             }
         }
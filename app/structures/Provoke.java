@@ -1,12 +1,11 @@
 package structures;
 
 import akka.actor.ActorRef;
-import commands.BasicCommands;
+import structures.basic.Bitboard;
+import structures.basic.Board;
 import structures.basic.Tile;
 import structures.basic.Unit;
 
-import java.util.List;
-
 /**
  * Implementation of the Provoke ability.
  * Enemy units in adjacent squares cannot move and can only attack this unit or other units with Provoke.
@@ -15,26 +14,26 @@ import java.util.List;
 public class Provoke implements Ability {
 
     @Override
-    public void triggerAbility(ActorRef out, GameState gameState, Tile sourceTile) {
-        Unit sourceUnit = gameState.getBoard().getUnitOnTile(sourceTile);
-
-        List<Tile> adjacentTiles = gameState.getBoard().getAdjacentTiles(sourceTile);
+    public AbilityTrigger getTrigger() {
+        return AbilityTrigger.ON_MOVE;
+    }
 
-        List<Unit> provokeUnits = gameState.getBoard().getUnitsWithAbility(Provoke.class);
+    @Override
+    public void triggerAbility(ActorRef out, GameState gameState, Tile sourceTile) {
+        Board board = gameState.getBoard();
+        Unit sourceUnit = board.getUnitOnTile(sourceTile);
 
-        for (Tile adjacentTile : adjacentTiles) {
-            Unit enemyUnit = gameState.getBoard().getUnitOnTile(adjacentTile);
+        // Occupied neighbours not owned by the source unit's player
+        long adjacentEnemies = Bitboard.ADJACENT[Board.tileIndex(sourceTile)] & board.getOccupiedMask()
+                & ~board.getOccupancyMask(sourceUnit.getOwner());
 
-            if (enemyUnit != null && enemyUnit.getOwner() != sourceUnit.getOwner() && !gameState.isUnitProvoked(enemyUnit)) {
-                BasicCommands.addPlayer1Notification(out, "Provoke Active", 3);
-                enemyUnit.setCanMove(false);
-                // Restrict the enemy unit's attacks to the source unit or other units with Provoke
-                enemyUnit.setValidAttackTargets(provokeUnits);
-                gameState.addProvokeEffect(enemyUnit, sourceUnit);
+        while (adjacentEnemies != 0) {
+            int index = Long.numberOfTrailingZeros(adjacentEnemies);
+            adjacentEnemies &= adjacentEnemies - 1;
 
-            }
+            // Restrict the enemy unit's movement and its attacks to units with Provoke
+            gameState.provoke(board.getUnitOnTile(index), sourceUnit);
         }
 
-
     }
 }
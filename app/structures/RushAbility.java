@@ -15,7 +15,7 @@ public class RushAbility implements Ability {
     @Override
     public void triggerAbility(ActorRef out, GameState gameState, Tile tile) {
         // Get the unit on the tile
-        Unit unit = tile.getUnit();
+        Unit unit = gameState.getBoard().getUnitOnTile(tile);
 
         if (unit != null) {
             // Allow the unit to act immediately (move and attack)
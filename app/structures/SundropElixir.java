@@ -1,7 +1,6 @@
 package structures;
 
 import akka.actor.ActorRef;
-import commands.BasicCommands;
 import structures.basic.EffectAnimation;
 import structures.basic.Tile;
 import structures.basic.Unit;
@@ -13,6 +12,17 @@ import utils.StaticConfFiles;
 * by 4. */
 
 public class SundropElixir implements SpellEffect {
+
+    private final int amount;
+
+    public SundropElixir() {
+        this(4);
+    }
+
+    public SundropElixir(int amount) {
+        this.amount = amount;
+    }
+
     @Override
     public void highlightValidTargets(ActorRef out, GameState gameState, Tile tile) {
         gameState.clearAllHighlights(out);
@@ -29,27 +39,22 @@ public class SundropElixir implements SpellEffect {
 
     @Override
     public void applyEffect(ActorRef out, GameState gameState, Tile targetTile) {
-        BasicCommands.drawTile(out, targetTile, 1);
-        BasicCommands.addPlayer1Notification(out, "Sundrop Elixir Spell Played", 3);
+        gameState.getView().drawTile(targetTile, 1);
+        gameState.getView().addPlayer1Notification("Sundrop Elixir Spell Played", 3);
 
-        try {
-            Thread.sleep(400);
-        } catch (InterruptedException e) {
-            throw new RuntimeException(e);
-        }
+        gameState.getView().pause(400);
 
         Unit unit = gameState.getBoard().getUnitOnTile(targetTile);
-        int amount = 4;
         unit.heal(amount);
 
         // Update the UI to reflect the new health
-        BasicCommands.setUnitHealth(out, unit, unit.getCurrentHealth());
+        gameState.getView().setUnitHealth(unit, unit.getCurrentHealth());
 
         // Play a healing effect animation
         EffectAnimation healingEffect = BasicObjectBuilders.loadEffect(StaticConfFiles.f1_buff);
-        BasicCommands.playEffectAnimation(out, healingEffect, targetTile);
+        gameState.getView().playEffectAnimation(healingEffect, targetTile);
 
         // Play an idle animation after healing
-        BasicCommands.playUnitAnimation(out, unit, UnitAnimationType.idle);
+        gameState.getView().playUnitAnimation(unit, UnitAnimationType.idle);
     }
 }
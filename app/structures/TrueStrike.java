@@ -2,7 +2,6 @@
 package structures;
 
 import akka.actor.ActorRef;
-import commands.BasicCommands;
 import structures.basic.Tile;
 import structures.basic.Unit;
 
@@ -12,6 +11,16 @@ import java.util.List;
 
 public class TrueStrike implements SpellEffect {
 
+    private final int damage;
+
+    public TrueStrike() {
+        this(2);
+    }
+
+    public TrueStrike(int damage) {
+        this.damage = damage;
+    }
+
     @Override
     public void highlightValidTargets(ActorRef out, GameState gameState, Tile tile) {
         // Clear all existing highlights
@@ -24,7 +33,7 @@ public class TrueStrike implements SpellEffect {
         for (Tile enemyTile : enemyTiles) {
             Unit unitOnTile = gameState.getBoard().getUnitOnTile(enemyTile);
             if (unitOnTile != null && !unitOnTile.isAvatar()) {
-                //BasicCommands.drawTile(out, enemyTile, 2); // Highlight mode = 2 (Red)
+                //gameState.getView().drawTile(enemyTile, 2); // Highlight mode = 2 (Red)
                 gameState.addRedHighlightedTile(enemyTile); // Track highlighted tiles
             }
         }
@@ -32,37 +41,29 @@ public class TrueStrike implements SpellEffect {
 
     @Override
     public void applyEffect(ActorRef out, GameState gameState, Tile targetTile) {
-        BasicCommands.drawTile(out, targetTile, 2);
-        BasicCommands.addPlayer1Notification(out, "True Strike Spell Played", 3);
+        gameState.getView().drawTile(targetTile, 2);
+        gameState.getView().addPlayer1Notification("True Strike Spell Played", 3);
 
-        try {
-            Thread.sleep(400);
-        } catch (InterruptedException e) {
-            throw new RuntimeException(e);
-        }
+        gameState.getView().pause(400);
 
         // Check if the target tile has an enemy unit
         Unit targetUnit = gameState.getBoard().getUnitOnTile(targetTile);
-        int damage = 2;
         int updatedHealth = targetUnit.getCurrentHealth() - damage;
         targetUnit.setCurrentHealth(updatedHealth);
+        gameState.publish(GameEvent.UNIT_DAMAGED, targetUnit, targetTile);
         System.out.println(updatedHealth);
         // Deal 2 damage to the enemy unit & update UI
-        BasicCommands.setUnitHealth(out, targetUnit, targetUnit.getCurrentHealth());
-        BasicCommands.drawTile(out, targetTile, 2);
+        gameState.getView().setUnitHealth(targetUnit, targetUnit.getCurrentHealth());
+        gameState.getView().drawTile(targetTile, 2);
 
         // Check if the unit is dead after taking damage
         if (targetUnit.getCurrentHealth() <= 0) {
-            gameState.getBoard().removeUnitFromTile(targetTile, out);
+            gameState.getBoard().removeUnitFromTile(gameState, targetTile);
 
-            try {
-                Thread.sleep(1200); // 500ms delay
-            } catch (InterruptedException e) {
-                throw new RuntimeException(e);
-            }
+            gameState.getView().pause(1200); // 500ms delay
         }
         gameState.clearAllHighlights(out);
-        BasicCommands.drawTile(out, targetTile, 0);
+        gameState.getView().drawTile(targetTile, 0);
     }
 
 }
\ No newline at end of file
@@ -1,7 +1,6 @@
 package structures;
 
 import akka.actor.ActorRef;
-import commands.BasicCommands;
 import structures.basic.Tile;
 import structures.basic.Unit;
 import structures.basic.UnitAnimationType;
@@ -29,7 +28,7 @@ public class WraithlingSwarm implements SpellEffect {
 	                // Check if there are three consecutive vertical empty tiles below this tile
 	                if (hasThreeVerticalEmptyTiles(gameState, currentTile)) {
 	                    // Highlight the starting tile
-	                    //BasicCommands.drawTile(out, currentTile, 1); // Highlight mode = 1 (Blue)
+	                    //gameState.getView().drawTile(currentTile, 1); // Highlight mode = 1 (Blue)
 	                    gameState.addHighlightedTile(currentTile); // Track highlighted tiles
 	                }
 	            }
@@ -113,26 +112,18 @@ public class WraithlingSwarm implements SpellEffect {
 	        gameState.getBoard().placeUnitOnTile(gameState,wraithling, verticalTile, false);
 	        
 	     // Add a small delay to ensure the unit is drawn
-	        try {
-	            Thread.sleep(100); // 100ms delay
-	        } catch (InterruptedException e) {
-	            e.printStackTrace();
-	        }
+	        gameState.getView().pause(100); // 100ms delay
 	        
-	        BasicCommands.setUnitHealth(out, wraithling, 1); // Wraithlings have 1 health
-	        BasicCommands.setUnitAttack(out, wraithling, 1); // Wraithlings have 1 attack
+	        gameState.getView().setUnitHealth(wraithling, 1); // Wraithlings have 1 health
+	        gameState.getView().setUnitAttack(wraithling, 1); // Wraithlings have 1 attack
 	        wraithling.setCurrentHealth(1);
 			wraithling.setAttackPower(1);
 
 	        // Add a delay between summoning each Wraithling for visual effect
-	        try {
-	            Thread.sleep(500); // 500ms delay
-	        } catch (InterruptedException e) {
-	            e.printStackTrace();
-	        }
+	        gameState.getView().pause(500); // 500ms delay
 	        
 	     // Play the idle animation
-	        BasicCommands.playUnitAnimation(out, wraithling, UnitAnimationType.idle);
+	        gameState.getView().playUnitAnimation(wraithling, UnitAnimationType.idle);
 	    }
 	} 
 }
\ No newline at end of file
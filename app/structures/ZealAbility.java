@@ -1,51 +1,32 @@
 package structures;
 
 import akka.actor.ActorRef;
-import commands.BasicCommands;
 import structures.basic.Tile;
 import structures.basic.Unit;
-import structures.basic.Player;
 
 /**
  * Implementation of the Zeal ability.
  * Triggers everytime the owning player's avatar takes damage.
  * When triggered, the unit gains +2 attack permanently.
- * Implements OnHitEventListener to respond to avatar damage events.
+ * Fired through the ON_HIT trigger for the units of the avatar's owner.
  */
-public class ZealAbility implements Ability, OnHitEventListener {
+public class ZealAbility implements Ability {
 
     @Override
-    public void triggerAbility(ActorRef out, GameState gameState, Tile tile) {
-        // This method is called when any unit with this ability is placed on the board
-        Player currentPlayer = gameState.getCurrentPlayer();
-        Unit unit = gameState.getBoard().getUnitOnTile(tile);
-
-            if (unit.getOwner() == currentPlayer) {
-                Unit avatar = currentPlayer.getAvatar();
-                avatar.addOnHitEventListener(this);
-
-            }
-        }
+    public AbilityTrigger getTrigger() {
+        return AbilityTrigger.ON_HIT;
+    }
 
-    //this is called when avatar takes hit
+    //this is called when the owner's avatar takes a hit
     @Override
-    public void onHit(ActorRef out, GameState gameState) {
-
-        // Get all units with ZealAbility for the current player
-        for (Unit unit : gameState.getBoard().getUnitsWithAbility(ZealAbility.class)) {
-            int newAttack = unit.getAttackPower() + 2;
-            unit.setAttackPower(newAttack);
-
-            // Update the UI with new attack power
-            BasicCommands.setUnitAttack(out, unit, newAttack);
-            BasicCommands.addPlayer1Notification(out, "Zeal Triggered", 3);
-        }
-
-        try {
-            Thread.sleep(100); // Small delay for UI update
-        } catch (InterruptedException e) {
-            System.out.println("Error");
-        }
+    public void triggerAbility(ActorRef out, GameState gameState, Tile tile) {
+        Unit unit = gameState.getBoard().getUnitOnTile(tile);
+        int newAttack = unit.getAttackPower() + 2;
+        unit.setAttackPower(newAttack);
 
+        // Update the UI with new attack power
+        gameState.getView().setUnitAttack(unit, newAttack);
+        gameState.getView().addPlayer1Notification("Zeal Triggered", 3);
+        gameState.getView().pause(100); // Small delay for UI update
     }
 }
\ No newline at end of file
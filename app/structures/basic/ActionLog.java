@@ -0,0 +1,103 @@
+package structures.basic;
+
+import java.util.Arrays;
+
+/**
+ * A do/undo journal for the mutable game objects. While a log is attached (see
+ * GameState.startActionLog) every change made by Board, Unit, Player and GameState is
+ * recorded with the value it replaced, so a search can play summons, moves, attacks,
+ * spells and ability triggers on the live objects and then roll them back exactly with
+ * undoTo(mark), instead of copying the game.
+ * <p>
+ * Entries are kept in parallel arrays that only grow, so recording does not allocate
+ * once the log has warmed up.
+ */
+public final class ActionLog {
+
+    /**
+     * Implemented by every object that records into the log. The kind, refs and value are
+     * whatever the object passed to record, and mean something only to that object.
+     */
+    public interface Revertible {
+        void revert(int kind, Object ref, Object ref2, int value);
+    }
+
+    private Revertible[] targets = new Revertible[256];
+    private int[] kinds = new int[256];
+    private Object[] refs = new Object[256];
+    private Object[] refs2 = new Object[256];
+    private int[] values = new int[256];
+    private int size;
+    private boolean undoing;
+
+    public void record(Revertible target, int kind, Object ref, Object ref2, int value) {
+        if (undoing) {
+            return; // Reverting goes through the same setters, those changes are not new entries
+        }
+        if (size == kinds.length) {
+            grow();
+        }
+        targets[size] = target;
+        kinds[size] = kind;
+        refs[size] = ref;
+        refs2[size] = ref2;
+        values[size] = value;
+        size++;
+    }
+
+    public void record(Revertible target, int kind, Object ref, int value) {
+        record(target, kind, ref, null, value);
+    }
+
+    public void record(Revertible target, int kind, int value) {
+        record(target, kind, null, null, value);
+    }
+
+    private void grow() {
+        int capacity = kinds.length * 2;
+        targets = Arrays.copyOf(targets, capacity);
+        kinds = Arrays.copyOf(kinds, capacity);
+        refs = Arrays.copyOf(refs, capacity);
+        refs2 = Arrays.copyOf(refs2, capacity);
+        values = Arrays.copyOf(values, capacity);
+    }
+
+    /**
+     * Returns a position in the log to undo back to.
+     */
+    public int mark() {
+        return size;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Reverts every change recorded after the mark, newest first.
+     */
+    public void undoTo(int mark) {
+        undoing = true;
+        try {
+            while (size > mark) {
+                size--;
+                targets[size].revert(kinds[size], refs[size], refs2[size], values[size]);
+                targets[size] = null;
+                refs[size] = null;
+                refs2[size] = null;
+            }
+        } finally {
+            undoing = false;
+        }
+    }
+
+    /**
+     * Forgets every entry, keeping the changes.
+     */
+    public void clear() {
+        Arrays.fill(targets, 0, size, null);
+        Arrays.fill(refs, 0, size, null);
+        Arrays.fill(refs2, 0, size, null);
+        size = 0;
+    }
+}
@@ -0,0 +1,134 @@
+package structures.basic;
+
+/**
+ * Bitboard helpers for the 9x5 board. Every cell maps to one bit of a long using
+ * Board.tileIndex(x, y) = y * 9 + x, so a whole set of tiles (occupancy, highlights,
+ * reachable cells) fits in a single value and can be combined with shifts and ANDs.
+ * <p>
+ * ADJACENT holds the 8-neighbourhood of every cell.
+ */
+public final class Bitboard {
+
+    public static final long ALL = (1L << Board.SIZE) - 1;
+
+    private static final long FIRST_COLUMN = column(0);
+    private static final long LAST_COLUMN = column(Board.WIDTH - 1);
+
+    public static final long[] ADJACENT = new long[Board.SIZE];
+
+    static {
+        for (int index = 0; index < Board.SIZE; index++) {
+            ADJACENT[index] = neighbours(bit(index));
+        }
+    }
+
+    private Bitboard() {
+    }
+
+    public static long bit(int index) {
+        return 1L << index;
+    }
+
+    public static long bit(Tile tile) {
+        return bit(Board.tileIndex(tile));
+    }
+
+    public static boolean contains(long mask, int index) {
+        return (mask & bit(index)) != 0;
+    }
+
+    /**
+     * Writes the index of every set bit into the buffer, lowest first.
+     *
+     * @return The number of indices written.
+     */
+    public static int toIndices(long mask, int[] buffer) {
+        int count = 0;
+        while (mask != 0) {
+            buffer[count++] = Long.numberOfTrailingZeros(mask);
+            mask &= mask - 1;
+        }
+        return count;
+    }
+
+    private static long column(int x) {
+        long mask = 0;
+        for (int y = 0; y < Board.HEIGHT; y++) {
+            mask |= bit(Board.tileIndex(x, y));
+        }
+        return mask;
+    }
+
+    // Single-step shifts, cells pushed off the board are dropped
+    public static long east(long mask) {
+        return (mask & ~LAST_COLUMN) << 1;
+    }
+
+    public static long west(long mask) {
+        return (mask & ~FIRST_COLUMN) >>> 1;
+    }
+
+    public static long north(long mask) {
+        return mask >>> Board.WIDTH;
+    }
+
+    public static long south(long mask) {
+        return (mask << Board.WIDTH) & ALL;
+    }
+
+    /**
+     * Returns every cell touching (including diagonally) any cell of the mask,
+     * excluding the cells of the mask itself.
+     */
+    public static long neighbours(long mask) {
+        long row = mask | east(mask) | west(mask);
+        return (row | north(row) | south(row)) & ~mask;
+    }
+
+    /**
+     * Computes the tiles a ground unit at the origin can move to.
+     * - Cardinal moves go up to 2 tiles and stop at the first occupied tile.
+     * - Diagonal moves go 1 tile and are blocked when both cardinal tiles next to the origin on that diagonal are occupied.
+     *
+     * @param origin   The tile index of the moving unit.
+     * @param occupied Occupancy of the whole board.
+     * @return The empty tiles the unit can reach.
+     */
+    public static long reachable(int origin, long occupied) {
+        return walk(origin, occupied, true);
+    }
+
+    /**
+     * Returns the occupied tiles that stop the movement pattern from the origin,
+     * i.e. the first occupied tile along each allowed direction.
+     */
+    public static long blockers(int origin, long occupied) {
+        return walk(origin, occupied, false);
+    }
+
+    private static long walk(int origin, long occupied, boolean wantReachable) {
+        long empty = ~occupied & ALL;
+        long cell = bit(origin);
+        long reach = 0;
+        long blocked = 0;
+
+        // Cardinal directions, 2 steps
+        long e = east(cell), w = west(cell), n = north(cell), s = south(cell);
+        long e1 = e & empty, w1 = w & empty, n1 = n & empty, s1 = s & empty;
+        long second = east(e1) | west(w1) | north(n1) | south(s1);
+        reach |= e1 | w1 | n1 | s1 | (second & empty);
+        blocked |= ((e | w | n | s) | second) & occupied;
+
+        // Diagonals, 1 step, need at least one open cardinal side
+        long ne = north(e), nw = north(w), se = south(e), sw = south(w);
+        if ((e1 | n1) == 0) ne = 0;
+        if ((w1 | n1) == 0) nw = 0;
+        if ((e1 | s1) == 0) se = 0;
+        if ((w1 | s1) == 0) sw = 0;
+        long diagonal = ne | nw | se | sw;
+        reach |= diagonal & empty;
+        blocked |= diagonal & occupied;
+
+        return wantReachable ? reach : blocked;
+    }
+}
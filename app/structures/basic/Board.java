@@ -1,82 +1,303 @@
 package structures.basic;
 
-import akka.actor.ActorRef;
-import commands.BasicCommands;
+import commands.GameView;
 import structures.Ability;
+import structures.AbilityTrigger;
+import structures.GameEvent;
 import structures.GameState;
+import structures.HumanPlayer;
+import structures.Provoke;
 import structures.RushAbility;
 import utils.BasicObjectBuilders;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
 
-public class Board {
+public class Board implements ActionLog.Revertible {
+    public static final int WIDTH = 9;
+    public static final int HEIGHT = 5;
+    public static final int SIZE = WIDTH * HEIGHT;
+
     private Tile[][] tiles; // 9x5 grid of tiles
-    private final ActorRef out;
-    private static Map<Tile, Unit> unitMap; // Track which unit is on which tile
+    private final GameView view;
+    private final List<List<Tile>> adjacentTiles; // Neighbour table, indexed by tileIndex(x, y)
+    private final Unit[] units = new Unit[SIZE]; // Which unit is on which tile, indexed by tileIndex(x, y)
+    private int[] tileIndexByUnitId = new int[16]; // Reverse index: unit id -> tileIndex + 1 (0 = not on board)
+    private int unitCount;
+
+    // Bitboard view of the same occupancy, see Bitboard
+    private long occupiedMask;
+    private final long[] ownerMasks = new long[2]; // slot 0 = human player, slot 1 = AI
+    private long provokeMask; // Cells holding a unit with Provoke
+    private final long[] triggerMasks = new long[AbilityTrigger.values().length]; // Cells subscribed to each trigger
+
+    // Zobrist hash of the units on the board, see Zobrist
+    private final long[] cellKeys = new long[SIZE];
+    private long hash;
 
-    public Board(ActorRef out) {
-        this.out = out;
-        tiles = new Tile[9][5]; // Initialize the board
+    private ActionLog actionLog; // Journal for make/unmake, null when not recording
+    private static final int LOG_PUT = 0;
+    private static final int LOG_TAKE = 1;
+
+    public Board(GameView view) {
+        this.view = view;
+        tiles = new Tile[WIDTH][HEIGHT]; // Initialize the board
         initializeTiles(); // Generate tiles
-        unitMap = new HashMap<>(); // Initialize the unit tracking map
+        adjacentTiles = buildAdjacentTiles();
+    }
+
+    /**
+     * Dense index of a board cell, row by row: index = y * WIDTH + x.
+     */
+    public static int tileIndex(int x, int y) {
+        return y * WIDTH + x;
     }
 
+    public static int tileIndex(Tile tile) {
+        return tileIndex(tile.getTilex(), tile.getTiley());
+    }
+
+    public Tile getTile(int index) {
+        return tiles[index % WIDTH][index / WIDTH];
+    }
+
+    // The tiles are shared by every board, see BasicObjectBuilders.getBoardTile
     private void initializeTiles() {
-        for (int x = 0; x < 9; x++) {
-            for (int y = 0; y < 5; y++) {
-                tiles[x][y] = BasicObjectBuilders.loadTile(x, y);
-                BasicCommands.drawTile(out, tiles[x][y], 0);
+        for (int x = 0; x < WIDTH; x++) {
+            for (int y = 0; y < HEIGHT; y++) {
+                tiles[x][y] = BasicObjectBuilders.getBoardTile(x, y);
+                view.drawTile(tiles[x][y], 0);
             }
         }
     }
 
     public Tile getTileForUnit(Unit unit) {
-        for (Map.Entry<Tile, Unit> entry : unitMap.entrySet()) {
-            if (entry.getValue().equals(unit)) {
-                return entry.getKey();
+        int index = getTileIndexForUnit(unit);
+        return index < 0 ? null : getTile(index);
+    }
+
+    /**
+     * Looks up the cell a unit stands on through the unit id reverse index.
+     *
+     * @return the tile index, or -1 if the unit is not on this board
+     */
+    public int getTileIndexForUnit(Unit unit) {
+        int id = unit.getId();
+        if (id < 0 || id >= tileIndexByUnitId.length) {
+            return -1;
+        }
+        int index = tileIndexByUnitId[id] - 1;
+        return index >= 0 && units[index] == unit ? index : -1;
+    }
+
+    /**
+     * Records a unit on a tile without any UI updates or ability triggers.
+     * Used for initial placement (e.g. avatars) and by placeUnitOnTile.
+     *
+     * @throws IllegalArgumentException if the unit has no id (e.g. a template unit, id -1),
+     *         since the board finds units by id
+     */
+    public void putUnit(Tile tile, Unit unit) {
+        int id = unit.getId();
+        if (id < 0) {
+            throw new IllegalArgumentException("Unit without an id cannot be placed: " + id);
+        }
+        int index = tileIndex(tile);
+        if (units[index] != null) {
+            takeUnit(index);
+        }
+        units[index] = unit;
+        unitCount++;
+        long cell = Bitboard.bit(index);
+        occupiedMask |= cell;
+        int slot = ownerSlot(unit.getOwner());
+        if (slot >= 0) {
+            ownerMasks[slot] |= cell;
+        }
+        if (hasProvoke(unit)) {
+            provokeMask |= cell;
+        }
+        for (Ability ability : unit.getAbilities()) {
+            AbilityTrigger trigger = ability.getTrigger();
+            if (trigger != null) {
+                triggerMasks[trigger.ordinal()] |= cell;
+            }
+        }
+        if (id >= tileIndexByUnitId.length) {
+            tileIndexByUnitId = Arrays.copyOf(tileIndexByUnitId, Math.max(id + 1, tileIndexByUnitId.length * 2));
+        }
+        tileIndexByUnitId[id] = index + 1;
+        unit.setBoard(this);
+        rehashCell(index);
+        if (actionLog != null) {
+            actionLog.record(this, LOG_PUT, unit, index);
+        }
+    }
+
+    private Unit takeUnit(int index) {
+        Unit unit = units[index];
+        if (unit != null) {
+            units[index] = null;
+            clearIndex(unit);
+            unit.setBoard(null);
+            hash ^= cellKeys[index];
+            cellKeys[index] = 0;
+            unitCount--;
+            long cell = ~Bitboard.bit(index);
+            occupiedMask &= cell;
+            ownerMasks[0] &= cell;
+            ownerMasks[1] &= cell;
+            provokeMask &= cell;
+            for (int i = 0; i < triggerMasks.length; i++) {
+                triggerMasks[i] &= cell;
+            }
+            if (actionLog != null) {
+                actionLog.record(this, LOG_TAKE, unit, index);
+            }
+        }
+        return unit;
+    }
+
+    public ActionLog getActionLog() {
+        return actionLog;
+    }
+
+    public void setActionLog(ActionLog actionLog) {
+        this.actionLog = actionLog;
+    }
+
+    @Override
+    public void revert(int kind, Object ref, Object ref2, int index) {
+        if (kind == LOG_PUT) {
+            takeUnit(index);
+        } else {
+            putUnit(getTile(index), (Unit) ref);
+        }
+    }
+
+    /**
+     * Called by a unit on this board when its stats or turn flags change, so the hash stays current.
+     */
+    void unitChanged(Unit unit) {
+        int index = getTileIndexForUnit(unit);
+        if (index >= 0) {
+            rehashCell(index);
+        }
+    }
+
+    private void rehashCell(int index) {
+        hash ^= cellKeys[index];
+        cellKeys[index] = Zobrist.unit(units[index], index);
+        hash ^= cellKeys[index];
+    }
+
+    /**
+     * Returns the Zobrist hash of the units on the board, kept up to date as units are placed,
+     * removed, damaged or change flags.
+     */
+    public long getHash() {
+        return hash;
+    }
+
+    private static int ownerSlot(Player owner) {
+        if (owner == null) {
+            return -1;
+        }
+        return owner instanceof HumanPlayer ? 0 : 1;
+    }
+
+    public static boolean hasProvoke(Unit unit) {
+        for (Ability ability : unit.getAbilities()) {
+            if (ability instanceof Provoke) {
+                return true;
             }
         }
-        return null;
+        return false;
+    }
+
+    public long getOccupiedMask() {
+        return occupiedMask;
+    }
+
+    /**
+     * Returns the cells occupied by units owned by the given player.
+     */
+    public long getOccupancyMask(Player owner) {
+        int slot = ownerSlot(owner);
+        return slot < 0 ? 0 : ownerMasks[slot];
+    }
+
+    public long getProvokeMask() {
+        return provokeMask;
+    }
+
+    /**
+     * Returns the cells holding a unit with an ability fired by the given trigger.
+     */
+    public long getTriggerMask(AbilityTrigger trigger) {
+        return triggerMasks[trigger.ordinal()];
+    }
+
+    /**
+     * Returns every unit with Provoke on the board, in board order.
+     */
+    public List<Unit> getProvokeUnits() {
+        List<Unit> provokers = new ArrayList<>(Long.bitCount(provokeMask));
+        for (long mask = provokeMask; mask != 0; mask &= mask - 1) {
+            provokers.add(units[Long.numberOfTrailingZeros(mask)]);
+        }
+        return provokers;
+    }
+
+    /**
+     * Adds the tile of every set bit in the mask to the list, in board order.
+     */
+    public void collectTiles(long mask, List<Tile> into) {
+        while (mask != 0) {
+            into.add(getTile(Long.numberOfTrailingZeros(mask)));
+            mask &= mask - 1;
+        }
+    }
+
+    public List<Tile> tilesOf(long mask) {
+        List<Tile> tiles = new ArrayList<>(Long.bitCount(mask));
+        collectTiles(mask, tiles);
+        return tiles;
+    }
+
+    private void clearIndex(Unit unit) {
+        int id = unit.getId();
+        if (id >= 0 && id < tileIndexByUnitId.length) {
+            tileIndexByUnitId[id] = 0;
+        }
     }
 
 
     public void placeUnitOnTile(GameState gameState, Unit unit, Tile tile, boolean yFirst) {
 
         // Remove the unit from its current tile (if any)
-       if (unitMap.containsValue(unit)) {
-            Tile currentTile = getTileForUnit(unit);
-            if (currentTile != null) {
-                unitMap.remove(currentTile); //from the map remove the key-value pair to keep map updated
-                BasicCommands.moveUnitToTile(out, unit, tile, yFirst);
-                BasicCommands.playUnitAnimation(out, unit, UnitAnimationType.move);
-                try {
-                    Thread.sleep(200); // Small delay for animation
-                } catch (InterruptedException e) {
-                    System.out.println("Error");
-                }
-                unitMap.put(tile,unit);
-                unit.setPositionByTile(tile);
-                unit.setHasMoved(true);
-                gameState.triggerProvoke(out);
-                return;
-            }
+        int currentIndex = getTileIndexForUnit(unit);
+        if (currentIndex >= 0) {
+            takeUnit(currentIndex); //clear the old cell to keep occupancy updated
+            view.moveUnitToTile(unit, tile, yFirst);
+            view.playUnitAnimation(unit, UnitAnimationType.move);
+            view.pause(200); // Small delay for animation
+            putUnit(tile, unit);
+            unit.setPositionByTile(tile);
+            unit.setHasMoved(true);
+            gameState.publish(GameEvent.UNIT_MOVED, unit, getTile(currentIndex));
+            return;
         }
         //if unit not on the board then
         unit.setPositionByTile(tile);
-        unitMap.put(tile, unit);
-        BasicCommands.drawUnit(out, unit, tile);
-        try {
-            Thread.sleep(100); // Small delay for animation
-        } catch (InterruptedException e) {
-            System.out.println("Error");
-        }
+        putUnit(tile, unit);
+        view.drawUnit(unit, tile);
+        view.pause(100); // Small delay for animation
         unit.setHasAttacked(true);
         unit.setHasMoved(true);
-        gameState.triggerProvoke(out);
+        gameState.publish(GameEvent.UNIT_SUMMONED, unit, tile);
 
         if (unit.getAbilities().stream().anyMatch(ability -> ability instanceof RushAbility)) {
             unit.setHasAttacked(false);
@@ -85,41 +306,83 @@ public class Board {
     }
 
     public Unit getUnitOnTile(Tile tile) {
-        return unitMap.get(tile); // Returns the unit if one is on this tile, otherwise null
+        return units[tileIndex(tile)]; // Returns the unit if one is on this tile, otherwise null
     }
 
-    public void removeUnitFromTile(Tile tile, ActorRef out) {
-        Unit unit = unitMap.get(tile); // Returns the unit to remove
-        BasicCommands.deleteUnit(out, unit);
-        unitMap.remove(tile); // Remove from map
+    public Unit getUnitOnTile(int index) {
+        return units[index];
     }
 
-    public static Map<Tile, Unit> getUnitMap() {
-        return unitMap;
+    public void removeUnitFromTile(GameState gameState, Tile tile) {
+        int index = tileIndex(tile);
+        Unit unit = takeUnit(index); // Returns the unit to remove
+        view.deleteUnit(unit);
+        if (unit != null) {
+            gameState.publish(GameEvent.UNIT_REMOVED, unit, tile);
+        }
+    }
+
+    /**
+     * Returns a snapshot of the occupied tiles in board order. The list is a copy,
+     * so callers may place or remove units while iterating it.
+     */
+    public List<Tile> getOccupiedTiles() {
+        List<Tile> occupied = new ArrayList<>(unitCount);
+        for (int index = 0; index < SIZE; index++) {
+            if (units[index] != null) {
+                occupied.add(getTile(index));
+            }
+        }
+        return occupied;
+    }
+
+    /**
+     * Returns a snapshot of the units on the board in board order.
+     */
+    public List<Unit> getUnits() {
+        List<Unit> onBoard = new ArrayList<>(unitCount);
+        for (Unit unit : units) {
+            if (unit != null) {
+                onBoard.add(unit);
+            }
+        }
+        return onBoard;
     }
 
     public Tile getTile(int x, int y) {
         return tiles[x][y]; // Retrieve a specific tile
     }
 
+    /**
+     * Returns the tiles around the given tile (left, right, up, down, then diagonals).
+     * The list is built once per board and shared, so it is read-only.
+     */
     public List<Tile> getAdjacentTiles(Tile tile) {
-        List<Tile> adjacentTiles = new ArrayList<>();
+        return adjacentTiles.get(tileIndex(tile));
+    }
+
+    private List<List<Tile>> buildAdjacentTiles() {
         int[][] directions = {{-1, 0}, {1, 0}, // Left, Right
                 {0, -1}, {0, 1}, // Up, Down
                 {-1, -1}, {-1, 1}, {1, -1}, {1, 1} // Diagonals
         };
 
-        for (int[] dir : directions) {
-            int newX = tile.getTilex() + dir[0];
-            int newY = tile.getTiley() + dir[1];
+        List<List<Tile>> table = new ArrayList<>(SIZE);
+        for (int index = 0; index < SIZE; index++) {
+            Tile tile = getTile(index);
+            List<Tile> neighbours = new ArrayList<>(directions.length);
+            for (int[] dir : directions) {
+                int newX = tile.getTilex() + dir[0];
+                int newY = tile.getTiley() + dir[1];
 
-            // Check if the new coordinates are within the board bounds
-            if (newX >= 0 && newX < 9 && newY >= 0 && newY < 5) {
-                adjacentTiles.add(getTile(newX, newY));
+                // Check if the new coordinates are within the board bounds
+                if (newX >= 0 && newX < WIDTH && newY >= 0 && newY < HEIGHT) {
+                    neighbours.add(getTile(newX, newY));
+                }
             }
+            table.add(Collections.unmodifiableList(neighbours));
         }
-
-        return adjacentTiles;
+        return Collections.unmodifiableList(table);
     }
 
 
@@ -132,7 +395,7 @@ public class Board {
         int behindX = isHuman ? x - 1 : x + 1;
 
         // Ensure the tile is within the board bounds
-        if (behindX >= 0 && behindX < 9) {
+        if (behindX >= 0 && behindX < WIDTH) {
             return getTile(behindX, y);
         }
         return null; // Tile is out of bounds
@@ -140,12 +403,6 @@ public class Board {
 
     }
 
-    public List<Unit> getUnitsWithAbility(Class<? extends Ability> abilityClass) {
-        return unitMap.values().stream()
-                .filter(unit -> unit.getAbilities().stream().anyMatch(ability -> abilityClass.isInstance(ability)))
-                .collect(Collectors.toList());
-    }
-
     public boolean isAdjacentTile(Tile tile1, Tile tile2) {
         int dx = Math.abs(tile1.getTilex() - tile2.getTilex());
         int dy = Math.abs(tile1.getTiley() - tile2.getTiley());
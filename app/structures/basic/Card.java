@@ -2,7 +2,8 @@ package structures.basic;
 
 
 import akka.actor.ActorRef;
-import commands.BasicCommands;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import structures.*;
 import utils.BasicObjectBuilders;
 
@@ -16,9 +17,12 @@ import java.util.List;
  *
  * @author Dr. Richard McCreadie
  */
+@JsonIgnoreProperties({"abilities", "spell"}) // Read by CardDefinitions, not sent to the front-end
 public class Card {
 
     int id;
+    @JsonIgnore
+    int definitionId = -1; // Index into CardDefinitions, resolved on first lookup
 
     String cardname;
     int manacost;
@@ -53,6 +57,14 @@ public class Card {
         this.id = id;
     }
 
+    public int getDefinitionId() {
+        return definitionId;
+    }
+
+    public void setDefinitionId(int definitionId) {
+        this.definitionId = definitionId;
+    }
+
     public String getCardname() {
         return cardname;
     }
@@ -118,7 +130,7 @@ public class Card {
      * Summons a creature onto the board at the specified tile.
      * Assigns abilities, health, and attack stats, then updates the UI.
      * Triggers Opening Gambit abilities immediately.
-     * Registers ZealAbility units to activate when the avatar is hit.
+     * Zeal units are fired by the board through the ON_HIT trigger, see GameState.fireTrigger.
      *
      * @param out         The ActorRef for sending commands to the front-end.
      * @param gameState   The current game state.
@@ -140,18 +152,14 @@ public class Card {
         }
 
         // Assign the abilities to the unit
-        List<Ability> abilities = CardAbilityMap.getAbilitiesForCard(selectedCard.getName());
+        List<Ability> abilities = CardDefinitions.getAbilities(selectedCard);
         newUnit.setAbilities(abilities);
         newUnit.setName(selectedCard.getName());
 
         // Place the unit on the board
         gameState.getBoard().placeUnitOnTile(gameState, newUnit, clickedTile, false);
 
-        try {
-            Thread.sleep(200);
-        } catch (InterruptedException e) {
-            System.out.println("Error");
-        }
+        gameState.getView().pause(200);
 
         // Assign health and attack
         int health = selectedCard.getBigCard().getHealth();
@@ -161,16 +169,8 @@ public class Card {
         newUnit.setMaximumHealth(health);
 
         // Set on UI
-        BasicCommands.setUnitAttack(out, newUnit, attack);
-        BasicCommands.setUnitHealth(out, newUnit, health);
-
-        // Register ZealAbility for future activation instead of triggering immediately.
-        // This ensures that when the avatar is hit, all units with ZealAbility gain +2 attack.
-        for (Ability ability : newUnit.getAbilities()) {
-            if (ability instanceof ZealAbility) {
-                ability.triggerAbility(out, gameState, clickedTile);
-            }
-        }
+        gameState.getView().setUnitAttack(newUnit, attack);
+        gameState.getView().setUnitHealth(newUnit, health);
     }
 
 }
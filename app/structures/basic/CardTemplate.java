@@ -0,0 +1,50 @@
+package structures.basic;
+
+/**
+ * The parts of a card that are the same for every copy of it: its name, cost and the
+ * MiniCard/BigCard art. A template is parsed once per configuration file (see
+ * BasicObjectBuilders.loadCard) and every Card dealt from it shares these parts, only the
+ * id is its own. The shared parts are never modified after parsing.
+ */
+public final class CardTemplate {
+
+    private final String cardname;
+    private final int manacost;
+    private final MiniCard miniCard;
+    private final BigCard bigCard;
+    private final boolean isCreature;
+    private final String unitConfig;
+
+    public CardTemplate(Card parsed) {
+        this.cardname = parsed.getCardname();
+        this.manacost = parsed.getManacost();
+        this.miniCard = parsed.getMiniCard();
+        this.bigCard = parsed.getBigCard();
+        this.isCreature = parsed.isCreature();
+        this.unitConfig = parsed.getUnitConfig();
+    }
+
+    public Card newCard(int id) {
+        return new Card(id, cardname, manacost, miniCard, bigCard, isCreature, unitConfig);
+    }
+
+    public String getCardname() {
+        return cardname;
+    }
+
+    public MiniCard getMiniCard() {
+        return miniCard;
+    }
+
+    public BigCard getBigCard() {
+        return bigCard;
+    }
+
+    public boolean isCreature() {
+        return isCreature;
+    }
+
+    public String getUnitConfig() {
+        return unitConfig;
+    }
+}
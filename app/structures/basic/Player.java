@@ -1,7 +1,7 @@
 package structures.basic;
 
 import akka.actor.ActorRef;
-import commands.BasicCommands;
+import commands.GameView;
 import structures.GameState;
 
 import java.util.ArrayList;
@@ -13,7 +13,7 @@ import java.util.List;
  *
  * @author Dr. Richard McCreadie
  */
-public abstract class Player {
+public abstract class Player implements ActionLog.Revertible {
 
     int health;
     int mana;
@@ -21,6 +21,15 @@ public abstract class Player {
     private int artifactRobustness = 0; // 0 means no artifact is equipped
     private boolean hasArtifact = false;
     private List<Card> hand;  // Cards that the player can play
+    private ActionLog actionLog; // Journal for make/unmake, null when not recording
+
+    // ActionLog entry kinds
+    private static final int LOG_HEALTH = 0;
+    private static final int LOG_MANA = 1;
+    private static final int LOG_ARTIFACT = 2;
+    private static final int LOG_HAND_ADD = 3;
+    private static final int LOG_HAND_REMOVE = 4;
+    private static final int LOG_DECK_DRAW = 5;
 
     public Player() {
         super();
@@ -40,6 +49,7 @@ public abstract class Player {
     }
 
     public void setHealth(int health) {
+        record(LOG_HEALTH, null, null, this.health);
         this.health = Math.min(health, 20);
     }
 
@@ -48,6 +58,7 @@ public abstract class Player {
     }
 
     public void setMana(int mana) {
+        record(LOG_MANA, null, null, this.mana);
         this.mana = mana;
     }
 
@@ -72,28 +83,105 @@ public abstract class Player {
         return hand;
     }
 
+    /**
+     * Adds a card to the end of the hand.
+     */
+    public void addToHand(Card card) {
+        record(LOG_HAND_ADD, null, null, hand.size());
+        hand.add(card);
+    }
+
+    /**
+     * Removes a card from the hand, the cards after it move up one position.
+     *
+     * @return false if the card was not in the hand
+     */
+    public boolean removeFromHand(Card card) {
+        int index = hand.indexOf(card);
+        if (index < 0) {
+            return false;
+        }
+        record(LOG_HAND_REMOVE, card, null, index);
+        hand.remove(index);
+        return true;
+    }
+
+    public void clearHand() {
+        for (int i = hand.size() - 1; i >= 0; i--) {
+            record(LOG_HAND_REMOVE, hand.get(i), null, i);
+        }
+        hand.clear();
+    }
+
+    /**
+     * Removes and returns the top card of the given deck.
+     */
+    protected Card drawFromDeck(List<Card> deck) {
+        Card card = deck.remove(0);
+        record(LOG_DECK_DRAW, deck, card, 0);
+        return card;
+    }
+
+    public void setActionLog(ActionLog actionLog) {
+        this.actionLog = actionLog;
+    }
+
+    private void record(int kind, Object ref, Object ref2, int value) {
+        if (actionLog != null) {
+            actionLog.record(this, kind, ref, ref2, value);
+        }
+    }
+
+    private void recordArtifact() {
+        record(LOG_ARTIFACT, null, null, (artifactRobustness << 1) | (hasArtifact ? 1 : 0));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void revert(int kind, Object ref, Object ref2, int value) {
+        switch (kind) {
+            case LOG_HEALTH:
+                health = value;
+                break;
+            case LOG_MANA:
+                mana = value;
+                break;
+            case LOG_ARTIFACT:
+                artifactRobustness = value >> 1;
+                hasArtifact = (value & 1) != 0;
+                break;
+            case LOG_HAND_ADD:
+                hand.remove(value);
+                break;
+            case LOG_HAND_REMOVE:
+                hand.add(value, (Card) ref);
+                break;
+            case LOG_DECK_DRAW:
+                ((List<Card>) ref).add(0, (Card) ref2);
+                break;
+        }
+    }
+
     public abstract void playCard(Card card, ActorRef out, GameState gameState);
 
     public abstract void drawCard(GameState gameState);
 
-    public void displayHand(ActorRef out) {
+    public void displayHand(GameView view) {
         for (int i = 0; i < hand.size(); i++) {
             Card card = hand.get(i);
-            BasicCommands.drawCard(out, card, i + 1, 0);
-            try {
-                Thread.sleep(100);
-            } catch (InterruptedException e) {
-                System.out.println("error occured");
-            }
+            view.drawCard(card, i + 1, 0);
+            view.pause(100);
         }
     }
 
     public void equipArtifact(int robustness) {
+        recordArtifact();
         this.artifactRobustness = robustness;
         this.hasArtifact = true;
     }
 
     public void setHasArtifact(boolean hasArtifact) {
+        recordArtifact();
         this.hasArtifact = hasArtifact;
     }
 }
@@ -1,12 +1,12 @@
 package structures.basic;
 
-import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import commands.BasicCommands;
+import utils.BasicObjectBuilders;
 
 /**
  * A basic representation of a tile on the game board. Tiles have both a pixel position
@@ -29,8 +29,6 @@ public class Tile {
 	int tilex;
 	int tiley;
 	
-	private Unit unit;
-	
 	public Tile() {}
 	
 	public Tile(String tileTexture, int xpos, int ypos, int width, int height, int tilex, int tiley) {
@@ -100,14 +98,14 @@ public class Tile {
 	
 	/**
 	 * Loads a tile from a configuration file
-	 * parameters.
+	 * parameters. The file is only read from disk once, see BasicObjectBuilders.readConfig
 	 * @param configFile
 	 * @return
 	 */
 	public static Tile constructTile(String configFile) {
 		
 		try {
-			Tile tile = mapper.readValue(new File(configFile), Tile.class);
+			Tile tile = mapper.readValue(BasicObjectBuilders.readConfig(configFile), Tile.class);
 			return tile;
 		} catch (Exception e) {
 			e.printStackTrace();
@@ -117,12 +115,4 @@ public class Tile {
 		
 	}
 	
-	public Unit getUnit() {
-		return unit;
-    }
-
-    public void setUnit(Unit unit) {
-		this.unit = unit;
-    } 
-	
 }
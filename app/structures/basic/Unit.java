@@ -3,14 +3,10 @@ package structures.basic;
 import java.util.ArrayList;
 import java.util.List;
 
-import akka.actor.ActorRef;
-
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import commands.BasicCommands;
+import commands.GameView;
 import structures.Ability;
-import structures.OnHitEventListener;
-import structures.GameState;
 
 /**
  * This is a representation of a Unit on the game board.
@@ -23,7 +19,7 @@ import structures.GameState;
  *
  * @author Dr. Richard McCreadie
  */
-public class Unit {
+public class Unit implements ActionLog.Revertible {
 
     @JsonIgnore
     protected static ObjectMapper mapper = new ObjectMapper(); // Jackson Java Object Serializer, is used to read java objects from a file
@@ -45,13 +41,26 @@ public class Unit {
     private String name;
     private boolean avatar;
     private boolean stunned = false;
-    private List<OnHitEventListener> onHitEventListeners = new ArrayList<>(); // List of event listeners
 
     @JsonIgnore // Exclude the ability field from serialization
     private List<Ability> abilities = new ArrayList<>();
     private boolean canMove = true;
     private List<Unit> validAttackTargets = new ArrayList<>(); // List of units this unit can attack
 
+    @JsonIgnore
+    private Board board; // The board this unit stands on, told about stat changes to keep its hash current
+
+    // ActionLog entry kinds
+    private static final int LOG_HEALTH = 0;
+    private static final int LOG_ATTACK = 1;
+    private static final int LOG_MAX_HEALTH = 2;
+    private static final int LOG_MOVED = 3;
+    private static final int LOG_ATTACKED = 4;
+    private static final int LOG_STUNNED = 5;
+    private static final int LOG_CAN_MOVE = 6;
+    private static final int LOG_TARGETS = 7;
+    private static final int LOG_POSITION = 8;
+
 
     public String getName() {
         return name;
@@ -59,6 +68,7 @@ public class Unit {
 
     public void setName(String name) {
         this.name = name;
+        changed();
     }
 
     public Unit() {
@@ -156,6 +166,7 @@ public class Unit {
      */
     @JsonIgnore
     public void setPositionByTile(Tile tile) {
+        record(LOG_POSITION, position, 0);
         position = new Position(tile.getXpos(), tile.getYpos(), tile.getTilex(), tile.getTiley());
     }
 
@@ -167,6 +178,7 @@ public class Unit {
 
     public void setOwner(Player player) {
         owner = player;
+        changed();
     }
 
     public int getCurrentHealth() {
@@ -174,7 +186,9 @@ public class Unit {
     }
 
     public void setCurrentHealth(int health) {
+        record(LOG_HEALTH, null, currentHealth);
         this.currentHealth = health;
+        changed();
     }
 
     public int getAttackPower() {
@@ -182,7 +196,9 @@ public class Unit {
     }
 
     public void setAttackPower(int attack) {
+        record(LOG_ATTACK, null, attackPower);
         this.attackPower = attack;
+        changed();
     }
 
     /**
@@ -192,9 +208,9 @@ public class Unit {
      * - Updates the UI to reflect health or artifact changes.
      *
      * @param damage The amount of damage to apply.
-     * @param out    The ActorRef used for sending UI updates.
+     * @param view   The view used for showing health or artifact changes.
      */
-    public void takeDamage(int damage, ActorRef out) {
+    public void takeDamage(int damage, GameView view) {
         // Check if this unit is the player's avatar and if the artifact is equipped
         Player ownerPlayer = this.getOwner();
         if (isAvatar() && ownerPlayer.hasArtifact()) {
@@ -205,31 +221,35 @@ public class Unit {
             // If the artifact is destroyed, notify the player
             if (updatedArtifact <= 0) {
                 ownerPlayer.setHasArtifact(false); // Remove the artifact
-                BasicCommands.addPlayer1Notification(out, "Artifact destroyed!", 2);
+                view.addPlayer1Notification("Artifact destroyed!", 2);
             } else {
-                BasicCommands.addPlayer1Notification(out, "Artifact robustness reduced to " + updatedArtifact, 2);
+                view.addPlayer1Notification("Artifact robustness reduced to " + updatedArtifact, 2);
             }
 
         } else {
             // If no artifact or not the avatar, reduce unit health
+            record(LOG_HEALTH, null, currentHealth);
             this.currentHealth -= damage;
             if (this.currentHealth < 0) {
                 this.currentHealth = 0;
             }
+            changed();
 
             // Update the UI to show the unit's remaining health
-            BasicCommands.setUnitHealth(out, this, this.currentHealth);
+            view.setUnitHealth(this, this.currentHealth);
         }
     }
 
-    public void counterDamage(Unit attacker, ActorRef out) {
+    public void counterDamage(Unit attacker, GameView view) {
         // Example: Deal damage back to the attacker
-        attacker.takeDamage(this.attackPower, out);
+        attacker.takeDamage(this.attackPower, view);
     }
 
     public void heal(int amount) {
+        record(LOG_HEALTH, null, currentHealth);
         currentHealth += amount;
         if (currentHealth > maxHealth) currentHealth = maxHealth;
+        changed();
     }
 
     public boolean hasMoved() {
@@ -237,7 +257,9 @@ public class Unit {
     }
 
     public void setHasMoved(boolean b) {
+        record(LOG_MOVED, null, isMoved ? 1 : 0);
         isMoved = b;
+        changed();
     }
 
     public boolean hasAttacked() {
@@ -245,7 +267,9 @@ public class Unit {
     }
 
     public void setHasAttacked(boolean b) {
+        record(LOG_ATTACKED, null, isAttacked ? 1 : 0);
         isAttacked = b;
+        changed();
     }
 
     public void setAbilities(List<Ability> abilitiesList) {
@@ -264,26 +288,11 @@ public class Unit {
 
     public void setAvatar(boolean avatar) {
         this.avatar = avatar;
-    }
-
-    public void addOnHitEventListener(OnHitEventListener listener) {
-        onHitEventListeners.add(listener);
-    }
-
-    /**
-     * Triggers all on-hit effects registered for this unit.
-     * Calls the `onHit` method of each registered event listener.
-     *
-     * @param out       The ActorRef used for sending UI updates.
-     * @param gameState The current game state.
-     */
-    public void triggerOnHitEffect(ActorRef out, GameState gameState) {
-        for (OnHitEventListener listener : onHitEventListeners) {
-            listener.onHit(out, gameState);
-        }
+        changed();
     }
 
     public void setMaximumHealth(int health) {
+        record(LOG_MAX_HEALTH, null, maxHealth);
         this.maxHealth = health;
     }
 
@@ -292,6 +301,7 @@ public class Unit {
     }
 
     public void setCanMove(boolean canMove) {
+        record(LOG_CAN_MOVE, null, this.canMove ? 1 : 0);
         this.canMove = canMove;
     }
 
@@ -300,6 +310,7 @@ public class Unit {
     }
 
     public void setValidAttackTargets(List<Unit> validAttackTargets) {
+        record(LOG_TARGETS, this.validAttackTargets, 0);
         this.validAttackTargets = validAttackTargets;
     }
 
@@ -325,6 +336,60 @@ public class Unit {
     }
 
     public void setStunned(boolean stunned) {
+        record(LOG_STUNNED, null, this.stunned ? 1 : 0);
         this.stunned = stunned;
+        changed();
+    }
+
+    void setBoard(Board board) {
+        this.board = board;
+    }
+
+    private void changed() {
+        if (board != null) {
+            board.unitChanged(this);
+        }
+    }
+
+    // Changes are only journaled while the unit is on a board that has an ActionLog
+    private void record(int kind, Object old, int oldValue) {
+        ActionLog log = board == null ? null : board.getActionLog();
+        if (log != null) {
+            log.record(this, kind, old, oldValue);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void revert(int kind, Object ref, Object ref2, int value) {
+        switch (kind) {
+            case LOG_HEALTH:
+                setCurrentHealth(value);
+                break;
+            case LOG_ATTACK:
+                setAttackPower(value);
+                break;
+            case LOG_MAX_HEALTH:
+                setMaximumHealth(value);
+                break;
+            case LOG_MOVED:
+                setHasMoved(value != 0);
+                break;
+            case LOG_ATTACKED:
+                setHasAttacked(value != 0);
+                break;
+            case LOG_STUNNED:
+                setStunned(value != 0);
+                break;
+            case LOG_CAN_MOVE:
+                setCanMove(value != 0);
+                break;
+            case LOG_TARGETS:
+                setValidAttackTargets((List<Unit>) ref);
+                break;
+            case LOG_POSITION:
+                position = (Position) ref;
+                break;
+        }
     }
 }
@@ -0,0 +1,30 @@
+package structures.basic;
+
+/**
+ * The parts of a unit that are the same for every unit made from one configuration file:
+ * its UnitAnimationSet and ImageCorrection. A template is parsed once per file (see
+ * BasicObjectBuilders.loadUnit) and every Unit made from it shares them, while id, position,
+ * stats and abilities are its own. The shared parts are never modified after parsing.
+ */
+public final class UnitTemplate {
+
+    private final UnitAnimationSet animations;
+    private final ImageCorrection correction;
+
+    public UnitTemplate(Unit parsed) {
+        this.animations = parsed.getAnimations();
+        this.correction = parsed.getCorrection();
+    }
+
+    public Unit newUnit(int id) {
+        return new Unit(id, animations, correction);
+    }
+
+    public UnitAnimationSet getAnimations() {
+        return animations;
+    }
+
+    public ImageCorrection getCorrection() {
+        return correction;
+    }
+}
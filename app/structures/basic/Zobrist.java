@@ -0,0 +1,109 @@
+package structures.basic;
+
+import structures.HumanPlayer;
+
+/**
+ * Zobrist keys for hashing game positions into a single long. A position hash is the XOR of
+ * one key per unit (type, owner, health, attack and turn flags, all tied to its cell), one key
+ * per player's mana and SIDE_AI when it is the AI's turn. Because XOR is its own inverse, a
+ * hash is updated in O(1) by XOR-ing out a unit's old key and XOR-ing in the new one.
+ * <p>
+ * Keys come from a fixed seed, so equal positions hash equally across games and runs.
+ */
+public final class Zobrist {
+
+    // Turn flags of a unit, see unit()
+    public static final int MOVED = 1;
+    public static final int ATTACKED = 1 << 1;
+    public static final int STUNNED = 1 << 2;
+
+    private static final int BUCKETS = 32; // Health and attack above 31 share the last bucket
+    private static final int MANA_LEVELS = 16;
+
+    private static final long[][] OWNER = new long[2][Board.SIZE];
+    private static final long[][] HEALTH = new long[BUCKETS][Board.SIZE];
+    private static final long[][] ATTACK = new long[BUCKETS][Board.SIZE];
+    private static final long[][] FLAGS = new long[8][Board.SIZE];
+    private static final long[][] MANA = new long[2][MANA_LEVELS];
+    private static final long TYPE_SALT;
+    public static final long SIDE_AI;
+
+    private static long seed = 0x2545F4914F6CDD1DL;
+
+    static {
+        fill(OWNER);
+        fill(HEALTH);
+        fill(ATTACK);
+        fill(FLAGS);
+        fill(MANA);
+        TYPE_SALT = next();
+        SIDE_AI = next();
+    }
+
+    private Zobrist() {
+    }
+
+    private static void fill(long[][] table) {
+        for (long[] row : table) {
+            for (int i = 0; i < row.length; i++) {
+                row[i] = next();
+            }
+        }
+    }
+
+    private static long next() {
+        seed += 0x9E3779B97F4A7C15L;
+        return mix(seed);
+    }
+
+    // SplitMix64 finaliser
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static int bucket(int value) {
+        return Math.max(0, Math.min(value, BUCKETS - 1));
+    }
+
+    /**
+     * The key of one unit on one cell.
+     *
+     * @param typeCode What kind of unit it is, see typeCode(Unit).
+     * @param owner    0 for the human player, 1 for the AI, -1 if unknown.
+     * @param flags    A combination of MOVED, ATTACKED and STUNNED.
+     */
+    public static long unit(int typeCode, int owner, int cell, int health, int attack, int flags) {
+        long key = mix(TYPE_SALT ^ ((long) typeCode << 8) ^ cell)
+                ^ HEALTH[bucket(health)][cell]
+                ^ ATTACK[bucket(attack)][cell]
+                ^ FLAGS[flags & 7][cell];
+        return owner < 0 ? key : key ^ OWNER[owner][cell];
+    }
+
+    public static long unit(Unit unit, int cell) {
+        int owner = unit.getOwner() == null ? -1 : unit.getOwner() instanceof HumanPlayer ? 0 : 1;
+        int flags = (unit.hasMoved() ? MOVED : 0) | (unit.hasAttacked() ? ATTACKED : 0) | (unit.isStunned() ? STUNNED : 0);
+        return unit(typeCode(unit), owner, cell, unit.getCurrentHealth(), unit.getAttackPower(), flags);
+    }
+
+    /**
+     * Units are told apart by name (summoned units are named after their card), avatars
+     * by a reserved code.
+     */
+    public static int typeCode(Unit unit) {
+        if (unit.isAvatar()) {
+            return -1;
+        }
+        return typeCode(unit.getName());
+    }
+
+    public static int typeCode(String name) {
+        return name == null ? 0 : name.hashCode();
+    }
+
+    public static long mana(int player, int mana) {
+        return MANA[player][Math.max(0, Math.min(mana, MANA_LEVELS - 1))];
+    }
+}
@@ -1,15 +1,31 @@
 package utils;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import structures.basic.Board;
 import structures.basic.Card;
+import structures.basic.CardTemplate;
 import structures.basic.EffectAnimation;
 import structures.basic.Tile;
 import structures.basic.Unit;
+import structures.basic.UnitTemplate;
 
 /**
  * This class contains methods for producing basic objects from configuration files
@@ -22,6 +38,155 @@ public class BasicObjectBuilders {
 	@JsonIgnore
 	protected static ObjectMapper mapper = new ObjectMapper(); // Jackson Java Object Serializer, is used to read java objects from a file
 
+	// The configuration files read so far, see Configuration. Replaced as a whole by reload
+	private static volatile Configuration configuration = new Configuration();
+
+	// tile.json parsed once, and the tiles of the game board made from it
+	private static volatile Tile tileTemplate;
+	private static volatile Tile[] boardTiles;
+
+	// Counted at each layer on its own: a template miss usually ends in a file hit
+	private static final AtomicLong templateHits = new AtomicLong(); // Cards, units and effects already parsed
+	private static final AtomicLong templateMisses = new AtomicLong(); // Cards, units and effects that had to be parsed
+	private static final AtomicLong fileHits = new AtomicLong(); // Files already in memory
+	private static final AtomicLong fileMisses = new AtomicLong(); // Files that had to be read from the disk
+
+	/**
+	 * Reads every configuration file under a directory (normally conf/gameconfs) in parallel
+	 * and builds the card, unit and effect templates from them, so that games never wait on
+	 * the disk. Called once when the application starts, see ConfigPreloader.
+	 * @param directory
+	 * @return the number of files read
+	 * @throws IOException if the directory cannot be listed
+	 */
+	public static int preload(String directory) throws IOException {
+		return preload(configuration, directory);
+	}
+
+	/**
+	 * Reads every configuration file under a directory again into a new set of templates and
+	 * only then puts it in place of the current one, so games being played keep loading from
+	 * memory while the files are read. Cards and units already made are not changed.
+	 * Called when the card configuration is reloaded, see CardDefinitions.reload.
+	 * @param directory
+	 * @return the number of files read
+	 * @throws IOException if the directory cannot be listed
+	 */
+	public static int reload(String directory) throws IOException {
+		Configuration fresh = new Configuration();
+		int read = preload(fresh, directory);
+		configuration = fresh;
+		ImageListForPreLoad.clearPreloadManifest();
+		ImageListForPreLoad.getPreloadManifest();
+		return read;
+	}
+
+	private static int preload(Configuration into, String directory) throws IOException {
+		List<String> paths;
+		try (Stream<Path> walk = Files.walk(Paths.get(directory))) {
+			paths = walk.filter(Files::isRegularFile)
+					.map(path -> path.toString().replace(File.separatorChar, '/'))
+					.filter(path -> path.endsWith(".json"))
+					.collect(Collectors.toList());
+		}
+
+		// The file names in each directory, see listConfigs
+		Map<String, List<String>> names = new HashMap<String, List<String>>();
+		for (String path : paths) {
+			int slash = path.lastIndexOf('/') + 1;
+			names.computeIfAbsent(path.substring(0, slash), name -> new ArrayList<String>()).add(path.substring(slash));
+		}
+		for (Map.Entry<String, List<String>> directoryNames : names.entrySet()) {
+			Collections.sort(directoryNames.getValue());
+			into.directories.put(directoryNames.getKey(), Collections.unmodifiableList(directoryNames.getValue()));
+		}
+
+		paths.parallelStream().forEach(path -> {
+			try {
+				readConfig(into, path);
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+		});
+
+		// Units before cards, a creature card takes its animation from the unit template
+		paths.parallelStream().filter(path -> path.contains("/units/") || path.contains("/avatars/"))
+				.forEach(path -> getUnitTemplate(into, path));
+		paths.parallelStream().filter(path -> path.contains("/cards/"))
+				.forEach(path -> getCardTemplate(into, path));
+		paths.parallelStream().filter(path -> path.contains("/effects/"))
+				.forEach(path -> loadEffect(into, path));
+		getBoardTile(0, 0);
+		return paths.size();
+	}
+
+	/**
+	 * Returns the names of the configuration files (*.json) in a directory, sorted by name.
+	 * Directories read by preload are not listed again; any other is listed on first use.
+	 * The list is shared and must not be modified.
+	 * @param directory ending with '/', e.g. OrderedCardLoader.cardsDIR
+	 * @return
+	 */
+	public static List<String> listConfigs(String directory) {
+		return configuration.directories.computeIfAbsent(directory, name -> {
+			String[] listed = new File(name).list((dir, file) -> file.endsWith(".json"));
+			List<String> sorted = listed == null ? new ArrayList<String>() : new ArrayList<String>(Arrays.asList(listed));
+			Collections.sort(sorted);
+			return Collections.unmodifiableList(sorted);
+		});
+	}
+
+	/**
+	 * Returns the contents of a configuration file, reading it only if it is not already
+	 * in memory. The array is shared and must not be modified.
+	 * @param configurationFile
+	 * @return
+	 * @throws IOException
+	 */
+	public static byte[] readConfig(String configurationFile) throws IOException {
+		return readConfig(configuration, configurationFile);
+	}
+
+	private static byte[] readConfig(Configuration from, String configurationFile) throws IOException {
+		byte[] content = from.files.get(configurationFile);
+		if (content != null) {
+			fileHits.incrementAndGet();
+			return content;
+		}
+		fileMisses.incrementAndGet();
+		content = Files.readAllBytes(Paths.get(configurationFile));
+		from.files.put(configurationFile, content);
+		return content;
+	}
+
+	/**
+	 * @return the number of card, unit and effect loads answered with an already parsed template
+	 */
+	public static long getTemplateHits() {
+		return templateHits.get();
+	}
+
+	/**
+	 * @return the number of card, unit and effect loads that had to parse a configuration file
+	 */
+	public static long getTemplateMisses() {
+		return templateMisses.get();
+	}
+
+	/**
+	 * @return the number of configuration file reads answered from memory
+	 */
+	public static long getFileHits() {
+		return fileHits.get();
+	}
+
+	/**
+	 * @return the number of configuration file reads that had to go to the disk
+	 */
+	public static long getFileMisses() {
+		return fileMisses.get();
+	}
+
 	/**
 	 * This class produces a Card object (or anything that extends Card) given a configuration
 	 * file. Configuration files can be found in the conf/gameconfs directory. The card should
@@ -30,18 +195,52 @@ public class BasicObjectBuilders {
 	 * extending card, e.g. MyAwesomeCard that extends Card, you could also specify
 	 * MyAwesomeCard.class here. If using an extending class you will need to manually set any
 	 * new data fields. 
+	 * 
+	 * Plain Card objects are made from a CardTemplate, so the file is only parsed the first
+	 * time and every copy shares its art.
 	 * @param configurationFile
 	 * @param id
 	 * @param classtype
 	 * @return
 	 */
 	public static Card loadCard(String configurationFile, int id, Class<? extends Card> classtype) {
+		Configuration from = configuration;
+		if (classtype == Card.class) {
+			CardTemplate template = getCardTemplate(from, configurationFile);
+			return template == null ? null : template.newCard(id);
+		}
+		return readCard(from, configurationFile, id, classtype);
+	}
+
+	/**
+	 * Returns the template for a card configuration file, parsing it on first use.
+	 * @param configurationFile
+	 * @return the template, or null if the file could not be read
+	 */
+	public static CardTemplate getCardTemplate(String configurationFile) {
+		return getCardTemplate(configuration, configurationFile);
+	}
+
+	private static CardTemplate getCardTemplate(Configuration from, String configurationFile) {
+		CardTemplate template = from.cardTemplates.get(configurationFile);
+		if (template != null) {
+			templateHits.incrementAndGet();
+			return template;
+		}
+		return from.cardTemplates.computeIfAbsent(configurationFile, file -> {
+			templateMisses.incrementAndGet();
+			Card parsed = readCard(from, file, 0, Card.class);
+			return parsed == null ? null : new CardTemplate(parsed);
+		});
+	}
+
+	private static Card readCard(Configuration from, String configurationFile, int id, Class<? extends Card> classtype) {
 		try {
-			Card card = mapper.readValue(new File(configurationFile), classtype);
+			Card card = mapper.readValue(readConfig(from, configurationFile), classtype);
 
 			// If the card is a creature, add its idle animation as the card animation
 			if (card.isCreature()) {
-				Unit unit = loadUnit(card.getUnitConfig(), -1, Unit.class);
+				Unit unit = getUnitTemplate(from, card.getUnitConfig()).newUnit(-1);
 				List<String> idleAnimation = unit.getAnimations().getAllFrames().subList(unit.getAnimations().getIdle().getFrameStartEndIndices()[0], unit.getAnimations().getIdle().getFrameStartEndIndices()[1]);
 				card.getMiniCard().setAnimationFrames(idleAnimation.toArray(new String[idleAnimation.size()]));
 			}
@@ -58,18 +257,32 @@ public class BasicObjectBuilders {
 	/**
 	 * This class produces a EffectAnimation object given a configuration
 	 * file. Configuration files can be found in the conf/gameconfs directory.
+	 * 
+	 * Each file is parsed once and the same EffectAnimation is returned every time, so it
+	 * must not be modified.
 	 * @param configurationFile
 	 * @return
 	 */
 	public static EffectAnimation loadEffect(String configurationFile) {
-		try {
-			EffectAnimation effect = mapper.readValue(new File(configurationFile), EffectAnimation.class);
-			return effect;
-		} catch (Exception e) {
-			e.printStackTrace();
+		return loadEffect(configuration, configurationFile);
+	}
 
+	private static EffectAnimation loadEffect(Configuration from, String configurationFile) {
+		EffectAnimation effect = from.effects.get(configurationFile);
+		if (effect != null) {
+			templateHits.incrementAndGet();
+			return effect;
 		}
-		return null;
+		return from.effects.computeIfAbsent(configurationFile, file -> {
+			templateMisses.incrementAndGet();
+			try {
+				return mapper.readValue(readConfig(from, file), EffectAnimation.class);
+			} catch (Exception e) {
+				e.printStackTrace();
+
+			}
+			return null;
+		});
 	}
 
 	/**
@@ -77,13 +290,47 @@ public class BasicObjectBuilders {
 	 * in the conf/gameconfs directory. The unit needs to be given a unique identifier
 	 * (id). This method requires a classtype argument that specifies what type of
 	 * unit to create. 
+	 * 
+	 * Plain Unit objects are made from a UnitTemplate, so the file is only parsed the first
+	 * time and every unit shares its animations.
 	 * @param configFile
 	 * @return
 	 */
 	public static Unit loadUnit(String configFile, int id,  Class<? extends Unit> classType) {
+		Configuration from = configuration;
+		if (classType == Unit.class) {
+			UnitTemplate template = getUnitTemplate(from, configFile);
+			return template == null ? null : template.newUnit(id);
+		}
+		return readUnit(from, configFile, id, classType);
+	}
+
+	/**
+	 * Returns the template for a unit configuration file, parsing it on first use.
+	 * @param configFile
+	 * @return the template, or null if the file could not be read
+	 */
+	public static UnitTemplate getUnitTemplate(String configFile) {
+		return getUnitTemplate(configuration, configFile);
+	}
+
+	private static UnitTemplate getUnitTemplate(Configuration from, String configFile) {
+		UnitTemplate template = from.unitTemplates.get(configFile);
+		if (template != null) {
+			templateHits.incrementAndGet();
+			return template;
+		}
+		return from.unitTemplates.computeIfAbsent(configFile, file -> {
+			templateMisses.incrementAndGet();
+			Unit parsed = readUnit(from, file, -1, Unit.class);
+			return parsed == null ? null : new UnitTemplate(parsed);
+		});
+	}
+
+	private static Unit readUnit(Configuration from, String configFile, int id,  Class<? extends Unit> classType) {
 
 		try {
-			Unit unit = mapper.readValue(new File(configFile), classType);
+			Unit unit = mapper.readValue(readConfig(from, configFile), classType);
 
 			// identify start and end frames automatically based on file names
 			// IDLE
@@ -200,7 +447,8 @@ public class BasicObjectBuilders {
 	}
 
 	/**
-	 * Generates a tile object with x and y indices
+	 * Generates a tile object with x and y indices. The tile configuration file is only
+	 * parsed once, see getTileTemplate.
 	 * @param x
 	 * @param y
 	 * @return
@@ -210,14 +458,60 @@ public class BasicObjectBuilders {
 		int gridTopLeftx = 410;
 		int gridTopLefty = 280;
 
-		Tile tile = Tile.constructTile(StaticConfFiles.tileConf);
-		tile.setXpos((tile.getWidth()*x)+(gridmargin*x)+gridTopLeftx);
-		tile.setYpos((tile.getHeight()*y)+(gridmargin*y)+gridTopLefty);
-		tile.setTilex(x);
-		tile.setTiley(y);
+		Tile template = getTileTemplate();
+		return new Tile(template.getTileTextures(),
+				(template.getWidth()*x)+(gridmargin*x)+gridTopLeftx,
+				(template.getHeight()*y)+(gridmargin*y)+gridTopLefty,
+				template.getWidth(), template.getHeight(), x, y);
+
+	}
+
+	/**
+	 * Returns the tile read from the tile configuration file, parsing it on first use. Its
+	 * position is not set and its texture list is shared, see loadTile.
+	 * @return
+	 */
+	public static Tile getTileTemplate() {
+		Tile template = tileTemplate;
+		if (template == null) {
+			template = Tile.constructTile(StaticConfFiles.tileConf);
+			template.setTileTextures(Collections.unmodifiableList(template.getTileTextures()));
+			tileTemplate = template;
+		}
+		return template;
+	}
 
-		return tile;
+	/**
+	 * Returns the tile at x, y of the game board. Every game shares the same 45 tiles: a tile
+	 * only says where a cell is drawn (Board keeps track of the units on it), so they must
+	 * not be modified.
+	 * @param x
+	 * @param y
+	 * @return
+	 */
+	public static Tile getBoardTile(int x, int y) {
+		Tile[] tiles = boardTiles;
+		if (tiles == null) {
+			tiles = new Tile[Board.WIDTH * Board.HEIGHT];
+			for (int index = 0; index < tiles.length; index++) {
+				tiles[index] = loadTile(index % Board.WIDTH, index / Board.WIDTH);
+			}
+			boardTiles = tiles;
+		}
+		return tiles[Board.tileIndex(x, y)];
+	}
 
+	/**
+	 * The contents of the configuration files read so far and what was parsed from them:
+	 * cards and units are parsed once per configuration file, see CardTemplate and
+	 * UnitTemplate. Filled at startup by preload.
+	 */
+	private static final class Configuration {
+		final Map<String, byte[]> files = new ConcurrentHashMap<String, byte[]>();
+		final Map<String, CardTemplate> cardTemplates = new ConcurrentHashMap<String, CardTemplate>();
+		final Map<String, UnitTemplate> unitTemplates = new ConcurrentHashMap<String, UnitTemplate>();
+		final Map<String, EffectAnimation> effects = new ConcurrentHashMap<String, EffectAnimation>();
+		final Map<String, List<String>> directories = new ConcurrentHashMap<String, List<String>>(); // See listConfigs
 	}
 
 }
@@ -0,0 +1,32 @@
+package utils;
+
+import javax.inject.Singleton;
+
+import structures.CardDefinitions;
+
+/**
+ * Reads the whole game configuration (conf/gameconfs) into memory when the application
+ * starts, so the first game does not pay for parsing the card, unit and effect files or
+ * for building the list of images the UI preloads.
+ * Created once, eagerly, by Module.
+ */
+@Singleton
+public class ConfigPreloader {
+
+	public static final String configDIR = "conf/gameconfs";
+
+	public ConfigPreloader() {
+		// Compiles the card definitions, later edits are picked up through AdminController
+		CardDefinitions.reloadIfChanged();
+
+		long start = System.currentTimeMillis();
+		try {
+			int read = BasicObjectBuilders.preload(configDIR);
+			ImageListForPreLoad.getPreloadManifest();
+			System.out.println("Preloaded " + read + " configuration files in "
+					+ (System.currentTimeMillis() - start) + "ms");
+		} catch (Exception e) {
+			e.printStackTrace(); // Games still load what they need on first use
+		}
+	}
+}
@@ -1,13 +1,17 @@
 package utils;
 
 import java.io.File;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.RawValue;
+
 import structures.basic.Card;
-import structures.basic.Tile;
 import structures.basic.Unit;
 
 /**
@@ -18,6 +22,36 @@ import structures.basic.Unit;
  */
 public class ImageListForPreLoad {
 
+	private static final ObjectMapper mapper = new ObjectMapper();
+	private static volatile RawValue manifest; // The image list as a JSON array, see getPreloadManifest
+
+	/**
+	 * Returns the image list already serialised as a JSON array. It is built on first use
+	 * (normally at startup, see ConfigPreloader), so a new connection only has to copy it
+	 * into its actorReady message.
+	 * @return
+	 */
+	public static RawValue getPreloadManifest() {
+		RawValue current = manifest;
+		if (current == null) {
+			try {
+				current = new RawValue(mapper.writeValueAsString(getImageListForPreLoad()));
+			} catch (JsonProcessingException e) {
+				throw new UncheckedIOException(e);
+			}
+			manifest = current;
+		}
+		return current;
+	}
+
+	/**
+	 * Forgets the serialised image list, so it is rebuilt from the configuration files
+	 * (used when the card configuration is reloaded).
+	 */
+	public static void clearPreloadManifest() {
+		manifest = null;
+	}
+
 	/**
 	 * This method returns a very big list of relative locations of the different images
 	 * that are needed by the game. Pixi.js will cache these on game load.
@@ -44,7 +78,7 @@ public class ImageListForPreLoad {
 		images.add("assets/game/extra/ui/button_primary.png");
 		
 		// Tiles
-		images.addAll(Tile.constructTile(StaticConfFiles.tileConf).getTileTextures());
+		images.addAll(BasicObjectBuilders.getTileTemplate().getTileTextures());
 		
 		// Avatars
 		images.addAll(BasicObjectBuilders.loadUnit(StaticConfFiles.humanAvatar, -1, Unit.class).getAnimations().getAllFrames());
@@ -1,6 +1,5 @@
 package utils;
 
-import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -8,7 +7,8 @@ import structures.basic.Card;
 
 /**
  * This is a utility class that provides methods for loading the decks for each
- * player, as the deck ordering is fixed. 
+ * player, as the deck ordering is fixed. The cards come in the order of their file names,
+ * from the files BasicObjectBuilders read at startup.
  * @author Richard
  *
  */
@@ -26,7 +26,7 @@ public class OrderedCardLoader {
 		
 		int cardID = 1;
 		for (int i =0; i<copies; i++) {
-			for (String filename : new File(cardsDIR).list()) {
+			for (String filename : BasicObjectBuilders.listConfigs(cardsDIR)) {
 				if (filename.startsWith("1_")) {
 					// this is a deck 1 card
 					cardsInDeck.add(BasicObjectBuilders.loadCard(cardsDIR+filename, cardID, Card.class));
@@ -49,7 +49,7 @@ public class OrderedCardLoader {
 		
 		int cardID = 1;
 		for (int i =0; i<copies; i++) {
-			for (String filename : new File(cardsDIR).list()) {
+			for (String filename : BasicObjectBuilders.listConfigs(cardsDIR)) {
 				if (filename.startsWith("2_")) {
 					// this is a deck 2 card
 					cardsInDeck.add(BasicObjectBuilders.loadCard(cardsDIR+filename, cardID, Card.class));
@@ -0,0 +1,150 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import commands.GameView;
+import events.Initalize;
+import play.libs.Json;
+import structures.GameState;
+import structures.basic.ActionLog;
+import structures.basic.Board;
+import structures.basic.Card;
+import structures.basic.Player;
+import structures.basic.Tile;
+import structures.basic.Unit;
+import utils.BasicObjectBuilders;
+
+/**
+ * Checks that each kind of action made through GameState's make methods is taken back
+ * completely by ActionLog.undoTo: the units on the board, both players and the position hash
+ * must be exactly as they were before the action.
+ */
+public class ActionLogTest {
+
+	private static final String CARDS = "conf/gameconfs/cards/";
+
+	private GameState gameState;
+	private ActionLog log;
+	private int nextCardId = 900;
+
+	/**
+	 * A started game, both players with full mana, and an enemy creature at (6,2) next to
+	 * the AI's avatar, so there is something for the spells to hit.
+	 */
+	private void startGame() {
+		gameState = new GameState(GameView.headless());
+		new Initalize().processEvent(null, gameState, Json.newObject());
+		log = gameState.startActionLog();
+
+		gameState.nextTurn(); // The AI's turn
+		gameState.getPlayer2().setMana(9);
+		gameState.makeSummon(card("2_1_c_u_skyrock_golem.json", gameState.getPlayer2()), tile(6, 2));
+		gameState.nextTurn(); // The human's turn again
+		gameState.getPlayer1().setMana(9);
+		log.clear();
+	}
+
+	@Test
+	public void summonIsUndone() {
+		startGame();
+		Card card = card("1_7_c_u_rock_pulveriser.json", gameState.getPlayer1());
+		assertUndone(() -> gameState.makeSummon(card, tile(2, 2)));
+	}
+
+	@Test
+	public void moveIsUndone() {
+		startGame();
+		Unit avatar = gameState.getPlayer1().getAvatar();
+		assertUndone(() -> gameState.makeMove(avatar, tile(2, 1)));
+	}
+
+	@Test
+	public void attackIsUndone() {
+		startGame();
+		Unit avatar = gameState.getPlayer1().getAvatar();
+		int mark = log.mark();
+		String before = describe();
+		gameState.makeMove(avatar, tile(5, 2)); // Next to the enemy creature
+		gameState.makeAttack(avatar, gameState.getBoard().getUnitOnTile(tile(6, 2)));
+		assertFalse("the attack changed nothing", before.equals(describe()));
+		log.undoTo(mark);
+		assertEquals(before, describe());
+	}
+
+	@Test
+	public void spellIsUndone() {
+		startGame();
+		Card card = card("2_a1_c_s_truestrike.json", gameState.getPlayer1());
+		assertUndone(() -> gameState.makeSpell(card, tile(6, 2)));
+	}
+
+	@Test
+	public void stunIsUndone() {
+		startGame();
+		Card card = card("2_5_c_s_beamshock.json", gameState.getPlayer1());
+		Unit enemy = gameState.getBoard().getUnitOnTile(tile(6, 2));
+		int mark = log.mark();
+		String before = describe();
+		gameState.makeSpell(card, tile(6, 2));
+		assertTrue("the unit was not stunned", enemy.isStunned());
+		log.undoTo(mark);
+		assertFalse(enemy.isStunned());
+		assertEquals(before, describe());
+	}
+
+	private interface Action {
+		int make();
+	}
+
+	private void assertUndone(Action action) {
+		String before = describe();
+		int mark = action.make();
+		assertFalse("the action changed nothing", before.equals(describe()));
+		log.undoTo(mark);
+		assertEquals(before, describe());
+	}
+
+	private Card card(String file, Player owner) {
+		Card card = BasicObjectBuilders.loadCard(CARDS + file, nextCardId++, Card.class);
+		owner.addToHand(card);
+		return card;
+	}
+
+	private Tile tile(int x, int y) {
+		return gameState.getBoard().getTile(x, y);
+	}
+
+	// Everything an action can change, as text so a failure shows the difference
+	private String describe() {
+		StringBuilder text = new StringBuilder();
+		Board board = gameState.getBoard();
+		for (int cell = 0; cell < Board.SIZE; cell++) {
+			Unit unit = board.getUnitOnTile(cell);
+			if (unit != null) {
+				text.append(cell).append(": unit ").append(unit.getId())
+						.append(" hp ").append(unit.getCurrentHealth()).append('/').append(unit.getMaxHealth())
+						.append(" atk ").append(unit.getAttackPower())
+						.append(" moved ").append(unit.hasMoved())
+						.append(" attacked ").append(unit.hasAttacked())
+						.append(" stunned ").append(unit.isStunned())
+						.append(" at ").append(unit.getPosition().getTilex()).append(',').append(unit.getPosition().getTiley())
+						.append('\n');
+			}
+		}
+		for (Player player : new Player[] {gameState.getPlayer1(), gameState.getPlayer2()}) {
+			text.append("player hp ").append(player.getHealth())
+					.append(" mana ").append(player.getMana())
+					.append(" artifact ").append(player.getArtifactRobustness())
+					.append(" hand");
+			for (Card card : player.getHand()) {
+				text.append(' ').append(card.getId());
+			}
+			text.append('\n');
+		}
+		text.append("turn ").append(gameState.getCurrentTurn()).append(gameState.isHumanTurn() ? " human" : " ai")
+				.append(" hash ").append(gameState.getPositionHash());
+		return text.toString();
+	}
+}
@@ -0,0 +1,110 @@
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import structures.basic.Bitboard;
+import structures.basic.Board;
+
+/**
+ * Checks Bitboard.reachable and Bitboard.blockers against the tile-by-tile walk that
+ * GameState.getValidMovementTiles used before the bitboards: 2 tiles in each cardinal
+ * direction and 1 diagonally, stopping at the first occupied tile, with a diagonal skipped
+ * when both cardinal tiles beside it are occupied.
+ */
+public class BitboardTest {
+
+	private static final int[][] DIRECTIONS = {{-1, 0}, {1, 0}, // Left, Right
+			{0, -1}, {0, 1}, // Up, Down
+			{-1, -1}, {-1, 1}, {1, -1}, {1, 1} // Diagonals
+	};
+
+	@Test
+	public void emptyAndFullBoards() {
+		checkEveryOrigin(0);
+		checkEveryOrigin(Bitboard.ALL);
+	}
+
+	@Test
+	public void patternedBoards() {
+		long checkerboard = 0;
+		long columns = 0;
+		long rows = 0;
+		for (int index = 0; index < Board.SIZE; index++) {
+			int x = index % Board.WIDTH;
+			int y = index / Board.WIDTH;
+			if ((x + y) % 2 == 0) checkerboard |= Bitboard.bit(index);
+			if (x % 2 == 1) columns |= Bitboard.bit(index);
+			if (y == 1 || y == 3) rows |= Bitboard.bit(index);
+		}
+		checkEveryOrigin(checkerboard);
+		checkEveryOrigin(~checkerboard & Bitboard.ALL);
+		checkEveryOrigin(columns);
+		checkEveryOrigin(rows);
+	}
+
+	@Test
+	public void randomBoards() {
+		Random random = new Random(42);
+		for (int board = 0; board < 500; board++) {
+			long occupied = 0;
+			int density = 1 + random.nextInt(8); // From nearly empty to nearly full
+			for (int index = 0; index < Board.SIZE; index++) {
+				if (random.nextInt(10) < density) occupied |= Bitboard.bit(index);
+			}
+			checkEveryOrigin(occupied);
+		}
+	}
+
+	private static void checkEveryOrigin(long occupied) {
+		for (int origin = 0; origin < Board.SIZE; origin++) {
+			long withOrigin = occupied | Bitboard.bit(origin); // The moving unit stands on its tile
+			long[] walked = walk(origin, withOrigin);
+			String where = "origin " + origin + ", occupied " + Long.toBinaryString(withOrigin);
+			assertEquals("reachable, " + where, walked[0], Bitboard.reachable(origin, withOrigin));
+			assertEquals("blockers, " + where, walked[1], Bitboard.blockers(origin, withOrigin));
+		}
+	}
+
+	// The old movement rule, returns {reachable, blockers}
+	private static long[] walk(int origin, long occupied) {
+		int tileX = origin % Board.WIDTH;
+		int tileY = origin / Board.WIDTH;
+		long reachable = 0;
+		long blockers = 0;
+
+		for (int[] direction : DIRECTIONS) {
+			boolean isDiagonal = direction[0] != 0 && direction[1] != 0;
+			int range = isDiagonal ? 1 : 2;
+
+			if (isDiagonal) {
+				int requiredX = tileX + direction[0];
+				int requiredY = tileY + direction[1];
+				if (requiredX < 0 || requiredX >= Board.WIDTH || requiredY < 0 || requiredY >= Board.HEIGHT) {
+					continue;
+				}
+				boolean canMoveX = !Bitboard.contains(occupied, Board.tileIndex(requiredX, tileY));
+				boolean canMoveY = !Bitboard.contains(occupied, Board.tileIndex(tileX, requiredY));
+				if (!canMoveX && !canMoveY) {
+					continue;
+				}
+			}
+
+			for (int step = 1; step <= range; step++) {
+				int newX = tileX + direction[0] * step;
+				int newY = tileY + direction[1] * step;
+				if (newX < 0 || newX >= Board.WIDTH || newY < 0 || newY >= Board.HEIGHT) {
+					break;
+				}
+				int index = Board.tileIndex(newX, newY);
+				if (Bitboard.contains(occupied, index)) {
+					blockers |= Bitboard.bit(index);
+					break;
+				}
+				reachable |= Bitboard.bit(index);
+			}
+		}
+		return new long[] {reachable, blockers};
+	}
+}
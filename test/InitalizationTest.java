@@ -40,13 +40,13 @@ public class InitalizationTest {
 		GameState gameState = new GameState(); // create state storage
 		Initalize initalizeProcessor =  new Initalize(); // create an initalize event processor
 		
-		assertFalse(gameState.gameInitalised); // check we have not initalized
+		assertFalse(gameState.isGameInitialized()); // check we have not initalized
 		
 		// lets simulate recieveing an initalize message
 		ObjectNode eventMessage = Json.newObject(); // create a dummy message
 		initalizeProcessor.processEvent(null, gameState, eventMessage); // send it to the initalize event processor
 		
-		assertTrue(gameState.gameInitalised); // check that this updated the game state
+		assertTrue(gameState.isGameInitialized()); // check that this updated the game state
 		
 		// lets also check that running commands don't actually do anything, since we have no front-end
 		Tile tile = BasicObjectBuilders.loadTile(3, 2); // create a tile
@@ -0,0 +1,177 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import actors.OutboundChannel;
+import actors.OutboundMetrics;
+import play.libs.Json;
+
+/**
+ * Drives an OutboundChannel one stream stage at a time, as if the websocket were slow: every
+ * message goes into the backlog before any is released, so what gets merged, replaced and
+ * dropped, and how the backlog is counted, does not depend on timing.
+ */
+public class OutboundChannelTest {
+
+	private static final OutboundMetrics metrics = OutboundMetrics.total();
+
+	@Test
+	public void laterCommandsReplaceEarlierOnes() {
+		OutboundChannel channel = new OutboundChannel(100);
+		long coalesced = metrics.getCoalesced();
+
+		OutboundChannel.Backlog backlog = channel.startBacklog(drawTile(3, 2, 1, 0));
+		channel.addToBacklog(backlog, setUnitHealth(7, 5));
+		channel.addToBacklog(backlog, drawTile(3, 2, 2, 0)); // Replaces the first one
+		channel.addToBacklog(backlog, drawTile(4, 2, 1, 0));
+		channel.addToBacklog(backlog, setUnitHealth(7, 3)); // Replaces the health of 5
+		channel.addToBacklog(backlog, message("ERR"));
+		assertEquals(4, channel.getBacklog());
+		assertEquals(2, metrics.getCoalesced() - coalesced);
+
+		List<JsonNode> released = channel.release(backlog);
+		assertEquals(4, released.size());
+		assertEquals(2, released.get(0).get("mode").asInt());
+		assertEquals(4, released.get(1).get("tile").get("tilex").asInt());
+		assertEquals(3, released.get(2).get("health").asInt());
+		assertEquals("ERR", released.get(3).get("messagetype").asText());
+	}
+
+	@Test
+	public void framesAreJoinedBackToBack() {
+		OutboundChannel channel = new OutboundChannel(100);
+		long merged = metrics.getMergedFrames();
+		long coalesced = metrics.getCoalesced();
+
+		OutboundChannel.Backlog backlog = channel.startBacklog(frame(200, drawTile(1, 1, 1, 0), setUnitHealth(7, 5, 100)));
+		channel.addToBacklog(backlog, frame(300, drawTile(1, 1, 0, 0), setUnitHealth(7, 4, 0))); // The health at 200 replaces nothing
+		channel.addToBacklog(backlog, frame(0, drawTile(1, 1, 2, 0))); // Shown at 500, the same moment as nothing else
+		channel.addToBacklog(backlog, frame(0, drawTile(1, 1, 3, 0))); // Also at 500, replaces the one before
+		assertEquals(3, metrics.getMergedFrames() - merged);
+		assertEquals(1, metrics.getCoalesced() - coalesced);
+		assertEquals(5, channel.getBacklog());
+
+		List<JsonNode> released = channel.release(backlog);
+		assertEquals(1, released.size());
+		JsonNode frame = released.get(0);
+		assertEquals(500, frame.get("duration").asInt());
+		ArrayNode commands = (ArrayNode) frame.get("commands");
+		assertEquals(5, commands.size());
+		int[] at = {0, 100, 200, 200, 500};
+		for (int index = 0; index < at.length; index++) {
+			assertEquals("at of command " + index, at[index], commands.get(index).get("at").asInt());
+		}
+		assertEquals(3, commands.get(4).get("mode").asInt());
+	}
+
+	@Test
+	public void backlogCountsCommandsAddedAndSent() {
+		OutboundChannel channel = new OutboundChannel(100);
+
+		OutboundChannel.Backlog first = channel.startBacklog(frame(0, drawTile(0, 0, 1, 0), drawTile(1, 0, 1, 0), drawTile(2, 0, 1, 0)));
+		channel.addToBacklog(first, message("ERR"));
+		assertEquals(4, channel.getBacklog()); // A frame for each of its commands, anything else for one
+
+		List<JsonNode> released = channel.release(first);
+		OutboundChannel.Backlog second = channel.startBacklog(frame(0, drawTile(3, 0, 1, 0)));
+		channel.sent(released.get(0));
+		assertEquals(2, channel.getBacklog());
+		channel.sent(released.get(1));
+		assertEquals(1, channel.getBacklog());
+		channel.sent(channel.release(second).get(0));
+		assertEquals(0, channel.getBacklog());
+	}
+
+	@Test
+	public void congestedUntilHalfDrained() throws Exception {
+		OutboundChannel channel = new OutboundChannel(10);
+		long congested = metrics.getCongested();
+		long dropped = metrics.getDropped();
+
+		OutboundChannel.Backlog backlog = channel.startBacklog(message("ERR"));
+		for (int added = 1; added < 9; added++) {
+			channel.addToBacklog(backlog, message("ERR"));
+		}
+		channel.addToBacklog(backlog, message("playEffectAnimation")); // 10 is not over the limit, kept
+		assertFalse(channel.isCongested());
+		channel.addToBacklog(backlog, message("ERR"));
+		assertTrue(channel.isCongested());
+		assertEquals(1, metrics.getCongested() - congested);
+
+		channel.addToBacklog(backlog, message("playEffectAnimation")); // Full, left out
+		channel.addToBacklog(backlog, frame(0, drawTile(0, 0, 1, 0), message("drawProjectile", 0)));
+		assertEquals(2, metrics.getDropped() - dropped);
+		assertEquals(12, channel.getBacklog());
+
+		Thread waiting = new Thread(() -> {
+			try {
+				channel.awaitDrained();
+			} catch (InterruptedException e) {
+				// Fails below
+			}
+		});
+		waiting.start();
+
+		List<JsonNode> released = channel.release(backlog);
+		for (int sent = 0; sent < 6; sent++) {
+			channel.sent(released.get(sent));
+		}
+		assertEquals(6, channel.getBacklog());
+		assertTrue(channel.isCongested()); // Under the limit is not enough
+		waiting.join(100);
+		assertTrue(waiting.isAlive());
+
+		channel.sent(released.get(6));
+		assertEquals(5, channel.getBacklog());
+		assertFalse(channel.isCongested());
+		waiting.join(1000);
+		assertFalse(waiting.isAlive());
+		assertEquals(1, metrics.getCongested() - congested);
+	}
+
+	private static ObjectNode message(String type) {
+		ObjectNode message = Json.newObject();
+		message.put("messagetype", type);
+		return message;
+	}
+
+	private static ObjectNode message(String type, int at) {
+		return message(type).put("at", at);
+	}
+
+	private static ObjectNode drawTile(int x, int y, int mode, int at) {
+		ObjectNode message = message("drawTile", at);
+		ObjectNode tile = message.putObject("tile");
+		tile.put("tilex", x);
+		tile.put("tiley", y);
+		message.put("mode", mode);
+		return message;
+	}
+
+	private static ObjectNode setUnitHealth(int unitId, int health) {
+		ObjectNode message = message("setUnitHealth");
+		message.putObject("unit").put("id", unitId);
+		message.put("health", health);
+		return message;
+	}
+
+	private static ObjectNode setUnitHealth(int unitId, int health, int at) {
+		return setUnitHealth(unitId, health).put("at", at);
+	}
+
+	private static ObjectNode frame(int duration, ObjectNode... commands) {
+		ObjectNode frame = message("frame");
+		frame.putArray("commands").addAll(Arrays.asList(commands));
+		frame.put("duration", duration);
+		return frame;
+	}
+}
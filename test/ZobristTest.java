@@ -0,0 +1,121 @@
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import commands.GameView;
+import events.Initalize;
+import play.libs.Json;
+import structures.GameState;
+import structures.basic.ActionLog;
+import structures.basic.Bitboard;
+import structures.basic.Board;
+import structures.basic.Card;
+import structures.basic.Player;
+import structures.basic.Unit;
+import structures.basic.Zobrist;
+
+/**
+ * Checks that the Zobrist hash the board keeps up to date as units are placed, moved, damaged
+ * and flagged always equals the hash computed from scratch, both while a game is played and
+ * while the ActionLog takes the moves back.
+ */
+public class ZobristTest {
+
+	@Test
+	public void incrementalHashMatchesRecompute() {
+		GameState gameState = new GameState(GameView.headless());
+		new Initalize().processEvent(null, gameState, Json.newObject());
+		ActionLog log = gameState.startActionLog();
+		Random random = new Random(7);
+
+		for (int round = 0; round < 200 && gameState.isGameInitialized(); round++) {
+			int base = log.mark();
+			List<Integer> marks = new ArrayList<Integer>();
+			for (int step = 0; step < 6 && gameState.isGameInitialized(); step++) {
+				int mark = playRandomAction(gameState, random);
+				if (mark >= 0) {
+					marks.add(mark);
+					checkHash(gameState);
+				}
+				if (random.nextInt(5) == 0) {
+					gameState.nextTurn();
+					checkHash(gameState);
+				}
+			}
+			for (int i = marks.size() - 1; i >= 0; i--) {
+				gameState.unmake(marks.get(i));
+				checkHash(gameState);
+			}
+			gameState.unmake(base);
+			checkHash(gameState);
+
+			// Let the game move on, so later rounds start from other positions
+			playRandomAction(gameState, random);
+			gameState.nextTurn();
+			log.clear();
+			checkHash(gameState);
+		}
+	}
+
+	private static void checkHash(GameState gameState) {
+		Board board = gameState.getBoard();
+		long boardHash = 0;
+		for (int cell = 0; cell < Board.SIZE; cell++) {
+			Unit unit = board.getUnitOnTile(cell);
+			if (unit != null) {
+				boardHash ^= Zobrist.unit(unit, cell);
+			}
+		}
+		assertEquals("board hash", boardHash, board.getHash());
+
+		long positionHash = boardHash ^ Zobrist.mana(0, gameState.getPlayer1().getMana())
+				^ Zobrist.mana(1, gameState.getPlayer2().getMana());
+		if (!gameState.isHumanTurn()) {
+			positionHash ^= Zobrist.SIDE_AI;
+		}
+		assertEquals("position hash", positionHash, gameState.getPositionHash());
+		assertEquals("snapshot hash", positionHash, gameState.snapshot().getHash());
+	}
+
+	/**
+	 * Moves, attacks or summons with the current player, if the random choice is possible.
+	 * @return the mark of the action, or -1 if none was made
+	 */
+	static int playRandomAction(GameState gameState, Random random) {
+		Board board = gameState.getBoard();
+		Player player = gameState.getCurrentPlayer();
+		long mine = board.getOccupancyMask(player);
+		long theirs = board.getOccupiedMask() & ~mine;
+		int[] cells = new int[Board.SIZE];
+		int count = Bitboard.toIndices(mine, cells);
+		if (count == 0) {
+			return -1;
+		}
+		int cell = cells[random.nextInt(count)];
+		Unit unit = board.getUnitOnTile(cell);
+
+		switch (random.nextInt(3)) {
+		case 0:
+			int[] targets = new int[Board.SIZE];
+			int moves = Bitboard.toIndices(gameState.getMovementMask(cell), targets);
+			return moves == 0 ? -1 : gameState.makeMove(unit, board.getTile(targets[random.nextInt(moves)]));
+		case 1:
+			long enemies = Bitboard.ADJACENT[cell] & theirs;
+			return enemies == 0 ? -1 : gameState.makeAttack(unit, board.getUnitOnTile(Long.numberOfTrailingZeros(enemies)));
+		default:
+			long free = Bitboard.neighbours(mine) & ~board.getOccupiedMask();
+			for (Card card : player.getHand()) {
+				if (card.isCreature() && free != 0) {
+					int[] tiles = new int[Board.SIZE];
+					int n = Bitboard.toIndices(free, tiles);
+					return gameState.makeSummon(card, board.getTile(tiles[random.nextInt(n)]));
+				}
+			}
+			return -1;
+		}
+	}
+}